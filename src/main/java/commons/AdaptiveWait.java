@@ -0,0 +1,110 @@
+package commons;
+
+import factoryEnvironment.DriverSession;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.Sleeper;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * WebDriverWait whose polling follows how long the same wait (session key + condition + locator) took in earlier
+ * runs, instead of Selenium's fixed 500ms:
+ * - with history, re-checks run every DEFAULT_POLLING_MILLIS at most until just before the usual time (80% of
+ *   p50), so a history from a slower environment never delays a fast wait more than the fixed polling did; then
+ *   polling is tight until past the slow case (120% of p95), then it backs off to at most MAX_POLLING_MILLIS;
+ * - without history, polling starts at MIN_POLLING_MILLIS and grows by half each time up to 500ms.
+ * The first check is immediate in both cases. Successful waits are recorded in WaitHistory
+ */
+public class AdaptiveWait extends WebDriverWait {
+    static final String VISIBLE = "visible";
+    static final String ALL_VISIBLE = "allVisible";
+    static final String CLICKABLE = "clickable";
+    static final String INVISIBLE = "invisible";
+    static final String ALL_INVISIBLE = "allInvisible";
+    static final String PRESENT = "present";
+
+    private static final long MIN_POLLING_MILLIS = 20;
+    private static final long TIGHT_POLLING_MILLIS = 100;
+    private static final long DEFAULT_POLLING_MILLIS = 500;
+    private static final long MAX_POLLING_MILLIS = 1000;
+
+    private final String key;
+    private final PollingSchedule schedule;
+
+    private AdaptiveWait(WebDriver driver, long timeOutInSeconds, String key, PollingSchedule schedule) {
+        super(driver, Clock.systemDefaultZone(), schedule, timeOutInSeconds, DEFAULT_POLLING_MILLIS);
+        this.key = key;
+        this.schedule = schedule;
+    }
+
+    /**
+     * Wait for a condition on a locator; a plain WebDriverWait with -DadaptiveWaits=false
+     * @param driver
+     * @param timeOutInSeconds
+     * @param condition name of the condition, part of the history key
+     * @param by
+     * @return
+     */
+    static WebDriverWait forLocator(WebDriver driver, long timeOutInSeconds, String condition, By by) {
+        if (!GlobalConstants.ADAPTIVE_WAITS) {
+            return new WebDriverWait(driver, timeOutInSeconds);
+        }
+        String key = DriverSession.keyOf(driver) + " " + condition + " " + by;
+        return new AdaptiveWait(driver, timeOutInSeconds, key, new PollingSchedule(WaitHistory.percentiles(key)));
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        long start = System.nanoTime();
+        schedule.start(start);
+        V value = super.until(isTrue);
+        WaitHistory.record(key, (System.nanoTime() - start) / 1_000_000);
+        return value;
+    }
+
+    /**
+     * Decides each sleep between two checks; FluentWait's own interval is ignored
+     */
+    static final class PollingSchedule implements Sleeper {
+        private final long[] percentiles;
+        private long startNanos;
+        private long interval;
+
+        PollingSchedule(long[] percentiles) {
+            this.percentiles = percentiles;
+        }
+
+        void start(long nanos) {
+            startNanos = nanos;
+            interval = MIN_POLLING_MILLIS;
+        }
+
+        @Override
+        public void sleep(Duration ignored) throws InterruptedException {
+            Thread.sleep(nextSleepMillis((System.nanoTime() - startNanos) / 1_000_000));
+        }
+
+        long nextSleepMillis(long elapsedMillis) {
+            if (percentiles == null) {
+                long sleep = interval;
+                interval = Math.min(DEFAULT_POLLING_MILLIS, interval * 3 / 2);
+                return sleep;
+            }
+            long p50 = percentiles[0];
+            long p95 = percentiles[1];
+            long tight = Math.max(MIN_POLLING_MILLIS, Math.min(TIGHT_POLLING_MILLIS, p50 / 10));
+            if (elapsedMillis < p50 * 8 / 10) {
+                return Math.max(MIN_POLLING_MILLIS, Math.min(DEFAULT_POLLING_MILLIS, p50 * 8 / 10 - elapsedMillis));
+            }
+            if (elapsedMillis < p95 * 12 / 10) {
+                return tight;
+            }
+            interval = Math.min(MAX_POLLING_MILLIS, Math.max(tight, interval) * 2);
+            return interval;
+        }
+    }
+}
@@ -7,16 +7,21 @@ import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
-import pageUIs.BaseUI;
+import pageUIs.BaseLocators;
 
+import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 public class BasePage {
+    private static final long NETWORK_IDLE_POLLING_MILLIS = 100;
 
     private long longTimeOut = GlobalConstants.LONG_TIMEOUT;
     private long shortTimeOut = GlobalConstants.SHORT_TIMEOUT;
+    private final ElementCache elementCache = new ElementCache();
 
     public static BasePage getBasePageObject() {
         return new BasePage();
@@ -28,6 +33,7 @@ public class BasePage {
      * @param url
      */
     protected void openPageUrl(WebDriver driver, String url) {
+        elementCache.invalidate();
         driver.get(url);
     }
 
@@ -72,6 +78,7 @@ public class BasePage {
      * @param driver
      */
     protected void backToPage(WebDriver driver) {
+        elementCache.invalidate();
         driver.navigate().back();
     }
 
@@ -80,6 +87,7 @@ public class BasePage {
      * @param driver
      */
     protected void forwardToPage(WebDriver driver) {
+        elementCache.invalidate();
         driver.navigate().forward();
     }
 
@@ -88,6 +96,7 @@ public class BasePage {
      * @param driver
      */
     protected void refreshCurrentPage(WebDriver driver) {
+        elementCache.invalidate();
         driver.navigate().refresh();
     }
 
@@ -108,7 +117,62 @@ public class BasePage {
         for (Cookie cookie : cookies) {
             driver.manage().addCookie(cookie);
         }
-        sleepInSecond(3);
+    }
+
+    /**
+     * Capture url, cookies, local and session storage of the current page under a name for the rest of the suite
+     * @param driver
+     * @param checkpointName
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    protected BrowserCheckpoint captureCheckpoint(WebDriver driver, String checkpointName) {
+        Map<String, Map<String, String>> storage = (Map<String, Map<String, String>>) ((JavascriptExecutor) driver).executeScript(
+                "function dump(store) { var items = {}; for (var i = 0; i < store.length; i++) { var key = store.key(i); items[key] = store.getItem(key); } return items; }"
+                        + "return { local: dump(window.localStorage), session: dump(window.sessionStorage) };");
+        BrowserCheckpoint checkpoint = new BrowserCheckpoint(checkpointName, getPageUrl(driver), getAllCookies(driver),
+                storage.get("local"), storage.get("session"));
+        BrowserCheckpoint.save(checkpoint);
+        return checkpoint;
+    }
+
+    /**
+     * Put a saved checkpoint back into the browser and open its url. The origin is loaded first
+     * (robots.txt, the lightest page of the site) because cookies and storage can only be set on their own origin
+     * @param driver
+     * @param checkpointName
+     * @return false when no checkpoint with that name was captured yet
+     */
+    protected boolean restoreCheckpoint(WebDriver driver, String checkpointName) {
+        BrowserCheckpoint checkpoint = BrowserCheckpoint.find(checkpointName);
+        if (checkpoint == null) {
+            return false;
+        }
+        String origin = getOrigin(checkpoint.getUrl());
+        if (!origin.equals(getOrigin(getPageUrl(driver)))) {
+            openPageUrl(driver, origin + "/robots.txt");
+        }
+        driver.manage().deleteAllCookies();
+        setCookies(driver, checkpoint.getCookies());
+
+        Map<String, Map<String, String>> storage = new HashMap<>();
+        storage.put("local", checkpoint.getLocalStorage());
+        storage.put("session", checkpoint.getSessionStorage());
+        ((JavascriptExecutor) driver).executeScript(
+                "function load(store, items) { store.clear(); for (var key in items) { store.setItem(key, items[key]); } }"
+                        + "load(window.localStorage, arguments[0].local); load(window.sessionStorage, arguments[0].session);", storage);
+
+        openPageUrl(driver, checkpoint.getUrl());
+        return true;
+    }
+
+    private String getOrigin(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getScheme() + "://" + uri.getRawAuthority();
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
     }
 
     /**
@@ -128,6 +192,7 @@ public class BasePage {
     protected void acceptAlert(WebDriver driver) {
         driver.switchTo().alert();
         waitForAlertPresence(driver).accept();
+        elementCache.invalidate();
         driver.switchTo().defaultContent();
     }
 
@@ -163,6 +228,7 @@ public class BasePage {
      * @param parentID
      */
     protected void switchToWindowByID(WebDriver driver, String parentID) {
+        elementCache.invalidate();
         Set<String> allWindows = driver.getWindowHandles();
         for (String runWindow : allWindows) {
             if (!runWindow.equals(parentID)) {
@@ -178,6 +244,7 @@ public class BasePage {
      * @param title
      */
     protected void switchToWindowByTitle(WebDriver driver, String title) {
+        elementCache.invalidate();
         Set<String> allWindows = driver.getWindowHandles();
         for (String runWindows : allWindows) {
             driver.switchTo().window(runWindows);
@@ -194,6 +261,7 @@ public class BasePage {
      * @param parentID
      */
     protected void closeAllWindowsWithoutParent(WebDriver driver, String parentID) {
+        elementCache.invalidate();
         Set<String> allWindows = driver.getWindowHandles();
         for (String runWindows : allWindows) {
             if (!runWindows.equals(parentID)) {
@@ -210,21 +278,7 @@ public class BasePage {
      * @return
      */
     private By getByLocator(String locatorType) {
-        By by = null;
-        if (locatorType.startsWith("id=") || locatorType.startsWith("ID=") || locatorType.startsWith("Id=")) {
-            by = By.id(locatorType.substring(3));
-        } else if (locatorType.startsWith("class=") || locatorType.startsWith("Class=") || locatorType.startsWith("CLASS=")) {
-            by = By.className(locatorType.substring(6));
-        } else if (locatorType.startsWith("name=") || locatorType.startsWith("NAME=") || locatorType.startsWith("Name=")) {
-            by = By.name(locatorType.substring(5));
-        } else if (locatorType.startsWith("css=") || locatorType.startsWith("CSS=") || locatorType.startsWith("Css=")) {
-            by = By.cssSelector(locatorType.substring(4));
-        } else if (locatorType.startsWith("xpath=") || locatorType.startsWith("Xpath=") || locatorType.startsWith("XPATH=")) {
-            by = By.xpath(locatorType.substring(6));
-        } else {
-            throw new RuntimeException("Locator type not supported");
-        }
-        return by;
+        return LocatorCache.getBy(locatorType);
     }
 
     /**
@@ -233,11 +287,8 @@ public class BasePage {
      * @param dynamicValues
      * @return
      */
-    private String getDynamicXpath(String locatorType, String... dynamicValues) {
-        if (locatorType.startsWith("xpath=")) {
-            locatorType = String.format(locatorType, (Object[]) dynamicValues);
-        }
-        return locatorType;
+    private By getByLocator(String locatorType, String... dynamicValues) {
+        return LocatorCache.getBy(locatorType, dynamicValues);
     }
 
     /**
@@ -247,7 +298,28 @@ public class BasePage {
      * @return
      */
     private WebElement getWebElement(WebDriver driver, String locatorType) {
-        return driver.findElement(getByLocator(locatorType));
+        return elementCache.find(driver, getByLocator(locatorType));
+    }
+
+    /**
+     * Get a single dynamic element locator
+     * @param driver
+     * @param locatorType
+     * @param dynamicValues
+     * @return
+     */
+    private WebElement getWebElement(WebDriver driver, String locatorType, String... dynamicValues) {
+        return elementCache.find(driver, getByLocator(locatorType, dynamicValues));
+    }
+
+    /**
+     * Get a single element locator
+     * @param driver
+     * @param locator
+     * @return
+     */
+    private WebElement getWebElement(WebDriver driver, Locator locator) {
+        return elementCache.find(driver, locator.getBy());
     }
 
     /**
@@ -268,7 +340,17 @@ public class BasePage {
      * @return
      */
     protected List<WebElement> getListWebElements(WebDriver driver, String locatorType, String... dynamicValues) {
-        return driver.findElements(getByLocator(getDynamicXpath(locatorType, dynamicValues)));
+        return driver.findElements(getByLocator(locatorType, dynamicValues));
+    }
+
+    /**
+     * Get a list of elements locator
+     * @param driver
+     * @param locator
+     * @return
+     */
+    protected List<WebElement> getListWebElements(WebDriver driver, Locator locator) {
+        return driver.findElements(locator.getBy());
     }
 
     /**
@@ -278,6 +360,7 @@ public class BasePage {
      */
     protected void clickToElement(WebDriver driver, String locatorType) {
         getWebElement(driver, locatorType).click();
+        elementCache.invalidate();
     }
 
     /**
@@ -287,7 +370,18 @@ public class BasePage {
      * @param dynamicValues
      */
     protected void clickToElement(WebDriver driver, String locatorType, String... dynamicValues) {
-        getWebElement(driver, getDynamicXpath(locatorType, dynamicValues)).click();
+        getWebElement(driver, locatorType, dynamicValues).click();
+        elementCache.invalidate();
+    }
+
+    /**
+     * Click to a single element
+     * @param driver
+     * @param locator
+     */
+    protected void clickToElement(WebDriver driver, Locator locator) {
+        getWebElement(driver, locator).click();
+        elementCache.invalidate();
     }
 
     /**
@@ -320,7 +414,19 @@ public class BasePage {
      * @param dynamicValues
      */
     protected void sendkeysToElement(WebDriver driver, String locatorType, String textValue, String... dynamicValues) {
-        WebElement element = getWebElement(driver, getDynamicXpath(locatorType, dynamicValues));
+        WebElement element = getWebElement(driver, locatorType, dynamicValues);
+        element.clear();
+        element.sendKeys(textValue);
+    }
+
+    /**
+     * Input value into a single text box
+     * @param driver
+     * @param locator
+     * @param textValue
+     */
+    protected void sendkeysToElement(WebDriver driver, Locator locator, String textValue) {
+        WebElement element = getWebElement(driver, locator);
         element.clear();
         element.sendKeys(textValue);
     }
@@ -344,7 +450,7 @@ public class BasePage {
      * @param dynamicValues
      */
     protected void selectItemInDefaultDropdown(WebDriver driver, String locatorType, String textItem, String... dynamicValues) {
-        Select select = new Select(getWebElement(driver, getDynamicXpath(locatorType, dynamicValues)));
+        Select select = new Select(getWebElement(driver, locatorType, dynamicValues));
         select.selectByVisibleText(textItem);
     }
 
@@ -367,7 +473,7 @@ public class BasePage {
      * @return
      */
     protected String getFirstSelectedItemDefaultDropdown(WebDriver driver, String locatorType, String... dynamicValues) {
-        Select select = new Select(getWebElement(driver, getDynamicXpath(locatorType, dynamicValues)));
+        Select select = new Select(getWebElement(driver, locatorType, dynamicValues));
         return select.getFirstSelectedOption().getText();
     }
 
@@ -390,33 +496,49 @@ public class BasePage {
      * @param expectedItem
      */
     protected void selectItemInCustomDropdown(WebDriver driver, String parentLocator, String childItemLocator, String expectedItem) {
-        getWebElement(driver, parentLocator).click();
-        sleepInSecond(1);
+        WebElement parent = getWebElement(driver, parentLocator);
+        parent.click();
 
+        LocatorType childType = getLocatorType(childItemLocator);
+        String childValue = childItemLocator.substring(childType.getPrefix().length());
         WebDriverWait explicitWait = new WebDriverWait(driver, GlobalConstants.LONG_TIMEOUT);
-        List<WebElement> allItems = explicitWait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(getByLocator(childItemLocator)));
-
-        for (WebElement item : allItems) {
-            if (item.getText().trim().equals(expectedItem)) {
-                JavascriptExecutor jsExecutor = (JavascriptExecutor) driver;
-                jsExecutor.executeScript("arguments[0].scrollIntoView(true);", item);
-                sleepInSecond(1);
-                item.click();
-                sleepInSecond(1);
-                break;
-            }
+        WebElement item = explicitWait.until(d -> DomReader.findByText(d, childType, childValue, expectedItem));
+
+        explicitWait.until(ExpectedConditions.and(scrolledIntoView(item), ExpectedConditions.elementToBeClickable(item)));
+        item.click();
+
+        try {
+            new WebDriverWait(driver, shortTimeOut).until(ExpectedConditions.or(
+                    ExpectedConditions.invisibilityOf(item), ExpectedConditions.textToBePresentInElement(parent, expectedItem)));
+        } catch (TimeoutException e) {
+            // a dropdown that stays open and does not echo the choice has nothing to wait for
         }
     }
 
     /**
-     * This is static sleep
+     * The element lies inside the viewport, i.e. scrolling (smooth scrolling included) has finished
+     * @param element
+     * @return
+     */
+    private ExpectedCondition<Boolean> scrolledIntoView(WebElement element) {
+        return driver -> (Boolean) ((JavascriptExecutor) driver).executeScript(
+                "var rect = arguments[0].getBoundingClientRect();"
+                        + "return rect.top >= 0 && rect.left >= 0 && rect.bottom <= window.innerHeight && rect.right <= window.innerWidth;", element);
+    }
+
+    /**
+     * This is static sleep. Prefer an explicit wait for the state you need: the time slept here is counted
+     * per test by SleepAccounting
      * @param timeInSecond
      */
     protected void sleepInSecond(long timeInSecond) {
+        long start = System.currentTimeMillis();
         try {
             Thread.sleep(timeInSecond * 1000);
         } catch (InterruptedException e) {
             e.printStackTrace();
+        } finally {
+            SleepAccounting.record(System.currentTimeMillis() - start);
         }
     }
 
@@ -440,7 +562,18 @@ public class BasePage {
      * @return
      */
     protected String getElementAttribute(WebDriver driver, String locatorType, String attributeName, String... dynamicValues) {
-        return getWebElement(driver, getDynamicXpath(locatorType, dynamicValues)).getAttribute(attributeName);
+        return getWebElement(driver, locatorType, dynamicValues).getAttribute(attributeName);
+    }
+
+    /**
+     * Get attribute name of single element
+     * @param driver
+     * @param locator
+     * @param attributeName
+     * @return
+     */
+    protected String getElementAttribute(WebDriver driver, Locator locator, String attributeName) {
+        return getWebElement(driver, locator).getAttribute(attributeName);
     }
 
     /**
@@ -461,7 +594,17 @@ public class BasePage {
      * @return
      */
     protected String getElementText(WebDriver driver, String locatorType, String... dynamicValues) {
-        return getWebElement(driver, getDynamicXpath(locatorType, dynamicValues)).getText();
+        return getWebElement(driver, locatorType, dynamicValues).getText();
+    }
+
+    /**
+     * Get text of single element
+     * @param driver
+     * @param locator
+     * @return
+     */
+    protected String getElementText(WebDriver driver, Locator locator) {
+        return getWebElement(driver, locator).getText();
     }
 
     /**
@@ -502,7 +645,17 @@ public class BasePage {
      * @return
      */
     protected int getElementSize(WebDriver driver, String locatorType, String... dynamicValues) {
-        return getListWebElements(driver, getDynamicXpath(locatorType, dynamicValues)).size();
+        return getListWebElements(driver, locatorType, dynamicValues).size();
+    }
+
+    /**
+     * Get element size of single element
+     * @param driver
+     * @param locator
+     * @return
+     */
+    protected int getElementSize(WebDriver driver, Locator locator) {
+        return getListWebElements(driver, locator).size();
     }
 
     /**
@@ -524,7 +677,7 @@ public class BasePage {
      * @param dynamicValues
      */
     protected void checkToDefaultCheckboxRadio(WebDriver driver, String locatorType, String... dynamicValues) {
-        WebElement element = getWebElement(driver, getDynamicXpath(locatorType, dynamicValues));
+        WebElement element = getWebElement(driver, locatorType, dynamicValues);
         if (!element.isSelected()) {
             element.click();
         }
@@ -549,7 +702,7 @@ public class BasePage {
      * @param dynamicValues
      */
     protected void uncheckToDefaultCheckboxRadio(WebDriver driver, String locatorType, String... dynamicValues) {
-        WebElement element = getWebElement(driver, getDynamicXpath(locatorType, dynamicValues));
+        WebElement element = getWebElement(driver, locatorType, dynamicValues);
         if (element.isSelected()) {
             element.click();
         }
@@ -578,13 +731,210 @@ public class BasePage {
      */
     protected boolean isElementDisplayed(WebDriver driver, String locatorType, String... dynamicValues) {
         try {
-            return getWebElement(driver, getDynamicXpath(locatorType, dynamicValues)).isDisplayed();
+            return getWebElement(driver, locatorType, dynamicValues).isDisplayed();
+        } catch (NoSuchElementException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Verify the element is displayed of single element
+     * @param driver
+     * @param locator
+     * @return
+     */
+    protected boolean isElementDisplayed(WebDriver driver, Locator locator) {
+        try {
+            return getWebElement(driver, locator).isDisplayed();
         } catch (NoSuchElementException e) {
             return false;
         }
     }
 
+    /**
+     * Read the texts of all elements matching the locator, trimmed like getText, in one script call
+     * @param driver
+     * @param locatorType
+     * @return
+     */
+    protected List<String> getElementTexts(WebDriver driver, String locatorType) {
+        LocatorType type = getLocatorType(locatorType);
+        return DomReader.texts(driver, type, locatorType.substring(type.getPrefix().length()));
+    }
+
+    /**
+     * Read the texts of all elements matching the locator, trimmed like getText of dynamic locator, in one script call
+     * @param driver
+     * @param locatorType
+     * @param dynamicValues
+     * @return
+     */
+    protected List<String> getElementTexts(WebDriver driver, String locatorType, String... dynamicValues) {
+        return getElementTexts(driver, String.format(locatorType, (Object[]) dynamicValues));
+    }
+
+    /**
+     * Read the texts of all elements matching the locator, trimmed like getText, in one script call
+     * @param driver
+     * @param locator
+     * @return
+     */
+    protected List<String> getElementTexts(WebDriver driver, Locator locator) {
+        return DomReader.texts(driver, locator.getType(), locator.getValue());
+    }
+
+    /**
+     * Read an attribute of all elements matching the locator, in one script call
+     * @param driver
+     * @param locatorType
+     * @param attributeName
+     * @return
+     */
+    protected List<String> getElementAttributes(WebDriver driver, String locatorType, String attributeName) {
+        LocatorType type = getLocatorType(locatorType);
+        return DomReader.attributes(driver, type, locatorType.substring(type.getPrefix().length()), attributeName);
+    }
+
+    /**
+     * Read an attribute of all elements matching the locator of dynamic locator, in one script call
+     * @param driver
+     * @param locatorType
+     * @param attributeName
+     * @param dynamicValues
+     * @return
+     */
+    protected List<String> getElementAttributes(WebDriver driver, String locatorType, String attributeName, String... dynamicValues) {
+        return getElementAttributes(driver, String.format(locatorType, (Object[]) dynamicValues), attributeName);
+    }
+
+    /**
+     * Read an attribute of all elements matching the locator, in one script call
+     * @param driver
+     * @param locator
+     * @param attributeName
+     * @return
+     */
+    protected List<String> getElementAttributes(WebDriver driver, Locator locator, String attributeName) {
+        return DomReader.attributes(driver, locator.getType(), locator.getValue(), attributeName);
+    }
+
+    /**
+     * Read a computed CSS value of all elements matching the locator, in one script call
+     * @param driver
+     * @param locatorType
+     * @param propertyName
+     * @return
+     */
+    protected List<String> getElementCssValues(WebDriver driver, String locatorType, String propertyName) {
+        LocatorType type = getLocatorType(locatorType);
+        return DomReader.cssValues(driver, type, locatorType.substring(type.getPrefix().length()), propertyName);
+    }
+
+    /**
+     * Read a computed CSS value of all elements matching the locator of dynamic locator, in one script call
+     * @param driver
+     * @param locatorType
+     * @param propertyName
+     * @param dynamicValues
+     * @return
+     */
+    protected List<String> getElementCssValues(WebDriver driver, String locatorType, String propertyName, String... dynamicValues) {
+        return getElementCssValues(driver, String.format(locatorType, (Object[]) dynamicValues), propertyName);
+    }
+
+    /**
+     * Read a computed CSS value of all elements matching the locator, in one script call
+     * @param driver
+     * @param locator
+     * @param propertyName
+     * @return
+     */
+    protected List<String> getElementCssValues(WebDriver driver, Locator locator, String propertyName) {
+        return DomReader.cssValues(driver, locator.getType(), locator.getValue(), propertyName);
+    }
+
+    /**
+     * Read whether each element matching the locator is displayed, in one script call
+     * @param driver
+     * @param locatorType
+     * @return
+     */
+    protected List<Boolean> getElementDisplayedFlags(WebDriver driver, String locatorType) {
+        LocatorType type = getLocatorType(locatorType);
+        return DomReader.displayedFlags(driver, type, locatorType.substring(type.getPrefix().length()));
+    }
+
+    /**
+     * Read whether each element matching the locator is displayed of dynamic locator, in one script call
+     * @param driver
+     * @param locatorType
+     * @param dynamicValues
+     * @return
+     */
+    protected List<Boolean> getElementDisplayedFlags(WebDriver driver, String locatorType, String... dynamicValues) {
+        return getElementDisplayedFlags(driver, String.format(locatorType, (Object[]) dynamicValues));
+    }
+
+    /**
+     * Read whether each element matching the locator is displayed, in one script call
+     * @param driver
+     * @param locator
+     * @return
+     */
+    protected List<Boolean> getElementDisplayedFlags(WebDriver driver, Locator locator) {
+        return DomReader.displayedFlags(driver, locator.getType(), locator.getValue());
+    }
+
+    /**
+     * Read the position and size of all elements matching the locator, relative to the document, in one script call
+     * @param driver
+     * @param locatorType
+     * @return
+     */
+    protected List<Rectangle> getElementRects(WebDriver driver, String locatorType) {
+        LocatorType type = getLocatorType(locatorType);
+        return DomReader.rects(driver, type, locatorType.substring(type.getPrefix().length()));
+    }
+
+    /**
+     * Read the position and size of all elements matching the locator, relative to the document of dynamic locator, in one script call
+     * @param driver
+     * @param locatorType
+     * @param dynamicValues
+     * @return
+     */
+    protected List<Rectangle> getElementRects(WebDriver driver, String locatorType, String... dynamicValues) {
+        return getElementRects(driver, String.format(locatorType, (Object[]) dynamicValues));
+    }
+
+    /**
+     * Read the position and size of all elements matching the locator, relative to the document, in one script call
+     * @param driver
+     * @param locator
+     * @return
+     */
+    protected List<Rectangle> getElementRects(WebDriver driver, Locator locator) {
+        return DomReader.rects(driver, locator.getType(), locator.getValue());
+    }
+
+    private LocatorType getLocatorType(String locatorType) {
+        LocatorType type = LocatorType.of(locatorType);
+        if (type == null) {
+            throw new RuntimeException("Locator type not supported: " + locatorType);
+        }
+        return type;
+    }
+
+    /**
+     * Change the implicit wait. Does nothing with -DexplicitWaitsOnly=true: the implicit wait stays 0, so the
+     * absence checks that call this are already fast and the two extra commands are saved
+     * @param driver
+     * @param timeOut
+     */
     protected void overrideGlobalTimeout(WebDriver driver, long timeOut) {
+        if (GlobalConstants.EXPLICIT_WAITS_ONLY) {
+            return;
+        }
         driver.manage().timeouts().implicitlyWait(timeOut, TimeUnit.SECONDS);
     }
 
@@ -617,7 +967,7 @@ public class BasePage {
      */
     protected boolean isElementUndisplayed(WebDriver driver, String locatorType, String... dynamicValues) {
         overrideGlobalTimeout(driver, shortTimeOut);
-        List<WebElement> elements = getListWebElements(driver, getDynamicXpath(locatorType, dynamicValues));
+        List<WebElement> elements = getListWebElements(driver, locatorType, dynamicValues);
         overrideGlobalTimeout(driver, longTimeOut);
 
         if (elements.size() == 0) {
@@ -647,7 +997,7 @@ public class BasePage {
      * @return
      */
     protected boolean isElementEnabled(WebDriver driver, String locatorType, String... dynamicValues) {
-        return getWebElement(driver, getDynamicXpath(locatorType, dynamicValues)).isEnabled();
+        return getWebElement(driver, locatorType, dynamicValues).isEnabled();
     }
 
     /**
@@ -668,7 +1018,7 @@ public class BasePage {
      * @return
      */
     protected boolean isElementSelected(WebDriver driver, String locatorType, String... dynamicValues) {
-        return getWebElement(driver, getDynamicXpath(locatorType, dynamicValues)).isSelected();
+        return getWebElement(driver, locatorType, dynamicValues).isSelected();
     }
 
     /**
@@ -677,7 +1027,8 @@ public class BasePage {
      * @param locatorType
      */
     protected void switchToFrameIframe(WebDriver driver, String locatorType) {
-        driver.switchTo().frame(getWebElement(driver, locatorType));
+        driver.switchTo().frame(driver.findElement(getByLocator(locatorType)));
+        elementCache.invalidate();
     }
 
     /**
@@ -685,6 +1036,7 @@ public class BasePage {
      * @param driver
      */
     protected void switchToDefaultContent(WebDriver driver) {
+        elementCache.invalidate();
         driver.switchTo().defaultContent();
     }
 
@@ -706,7 +1058,7 @@ public class BasePage {
      */
     protected void hoverMouseToElement(WebDriver driver, String locatorType, String... dynamicValues) {
         Actions action = new Actions(driver);
-        action.moveToElement(getWebElement(driver, getDynamicXpath(locatorType, dynamicValues))).perform();
+        action.moveToElement(getWebElement(driver, locatorType, dynamicValues)).perform();
     }
 
     /**
@@ -718,6 +1070,7 @@ public class BasePage {
     protected void pressKeyToElement(WebDriver driver, String locatorType, Keys key) {
         Actions action = new Actions(driver);
         action.sendKeys(getWebElement(driver, locatorType), key).perform();
+        elementCache.invalidate();
     }
 
     /**
@@ -729,7 +1082,8 @@ public class BasePage {
      */
     protected void pressKeyToElement(WebDriver driver, String locatorType, Keys key, String... dynamicValues) {
         Actions action = new Actions(driver);
-        action.sendKeys(getWebElement(driver, getDynamicXpath(locatorType, dynamicValues)), key).perform();
+        action.sendKeys(getWebElement(driver, locatorType, dynamicValues), key).perform();
+        elementCache.invalidate();
     }
 
     /**
@@ -763,6 +1117,7 @@ public class BasePage {
     protected void clickToElementByJS(WebDriver driver, String locatorType) {
         JavascriptExecutor jsExecutor = (JavascriptExecutor) driver;
         jsExecutor.executeScript("arguments[0].click();", getWebElement(driver, locatorType));
+        elementCache.invalidate();
     }
 
     /**
@@ -773,7 +1128,8 @@ public class BasePage {
      */
     protected void clickToElementByJS(WebDriver driver, String locatorType, String... dynamicValues) {
         JavascriptExecutor jsExecutor = (JavascriptExecutor) driver;
-        jsExecutor.executeScript("arguments[0].click();", getWebElement(driver, getDynamicXpath(locatorType, dynamicValues)));
+        jsExecutor.executeScript("arguments[0].click();", getWebElement(driver, locatorType, dynamicValues));
+        elementCache.invalidate();
     }
 
     /**
@@ -798,33 +1154,42 @@ public class BasePage {
     }
 
     /**
-     * Verify page loading is ready
+     * Verify page loading is ready: the page is loaded and the network is idle (see waitForNetworkIdle)
      * @param driver
      * @return
      */
     protected boolean areJQueryAndJSLoadedSuccessByJS(WebDriver driver) {
-        WebDriverWait explicitWait = new WebDriverWait(driver, GlobalConstants.LONG_TIMEOUT);
-        JavascriptExecutor jsExecutor = (JavascriptExecutor) driver;
+        waitForNetworkIdle(driver);
+        return true;
+    }
 
-        ExpectedCondition<Boolean> jQueryLoad = new ExpectedCondition<Boolean>() {
-            @Override
-            public Boolean apply(WebDriver driver) {
-                try {
-                    return ((Long) jsExecutor.executeScript("return jQuery.active") == 0);
-                } catch (Exception e) {
-                    return true;
-                }
-            }
-        };
+    /**
+     * Start counting the XHR/fetch requests of the current page. Call it before an action that fires ajax
+     * requests, so waitForNetworkIdle also sees the requests that are still in flight
+     * @param driver
+     */
+    protected void trackNetworkRequests(WebDriver driver) {
+        NetworkIdle.track(driver);
+    }
 
-        ExpectedCondition<Boolean> jsLoad = new ExpectedCondition<Boolean>() {
-            @Override
-            public Boolean apply(WebDriver driver) {
-                return jsExecutor.executeScript("return document.readyState").toString().equals("complete");
-            }
-        };
+    /**
+     * Wait until the page is loaded, no XHR/fetch request is in flight and none finished during the
+     * last networkIdle.quietMillis
+     * @param driver
+     */
+    protected void waitForNetworkIdle(WebDriver driver) {
+        waitForNetworkIdle(driver, GlobalConstants.NETWORK_QUIET_MILLIS);
+    }
 
-        return explicitWait.until(jQueryLoad) && explicitWait.until(jsLoad);
+    /**
+     * Wait until the page is loaded, no XHR/fetch request is in flight and none finished during the
+     * last quietMillis
+     * @param driver
+     * @param quietMillis
+     */
+    protected void waitForNetworkIdle(WebDriver driver, long quietMillis) {
+        WebDriverWait explicitWait = new WebDriverWait(driver, GlobalConstants.LONG_TIMEOUT, NETWORK_IDLE_POLLING_MILLIS);
+        explicitWait.until(NetworkIdle.idleFor(quietMillis));
     }
 
     /**
@@ -860,8 +1225,7 @@ public class BasePage {
      * @param locatorType
      */
     protected void waitForElementVisible(WebDriver driver, String locatorType) {
-        WebDriverWait explicitWait = new WebDriverWait(driver, GlobalConstants.LONG_TIMEOUT);
-        explicitWait.until(ExpectedConditions.visibilityOfElementLocated(getByLocator(locatorType)));
+        waitForLocator(driver, GlobalConstants.LONG_TIMEOUT, AdaptiveWait.VISIBLE, locatorType);
     }
 
     /**
@@ -871,8 +1235,16 @@ public class BasePage {
      * @param dynamicValues
      */
     protected void waitForElementVisible(WebDriver driver, String locatorType, String... dynamicValues) {
-        WebDriverWait explicitWait = new WebDriverWait(driver, GlobalConstants.LONG_TIMEOUT);
-        explicitWait.until(ExpectedConditions.visibilityOfElementLocated(getByLocator(getDynamicXpath(locatorType, dynamicValues))));
+        waitForLocator(driver, GlobalConstants.LONG_TIMEOUT, AdaptiveWait.VISIBLE, locatorType, dynamicValues);
+    }
+
+    /**
+     * Wait for a single element is visible
+     * @param driver
+     * @param locator
+     */
+    protected void waitForElementVisible(WebDriver driver, Locator locator) {
+        waitForLocator(driver, GlobalConstants.LONG_TIMEOUT, AdaptiveWait.VISIBLE, locator);
     }
 
     /**
@@ -881,8 +1253,7 @@ public class BasePage {
      * @param locatorType
      */
     protected void waitForAllElementVisible(WebDriver driver, String locatorType) {
-        WebDriverWait explicitWait = new WebDriverWait(driver, GlobalConstants.LONG_TIMEOUT);
-        explicitWait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(getByLocator(locatorType)));
+        waitForLocator(driver, GlobalConstants.LONG_TIMEOUT, AdaptiveWait.ALL_VISIBLE, locatorType);
     }
 
     /**
@@ -892,8 +1263,7 @@ public class BasePage {
      * @param dynamicValues
      */
     protected void waitForAllElementVisible(WebDriver driver, String locatorType, String... dynamicValues) {
-        WebDriverWait explicitWait = new WebDriverWait(driver, GlobalConstants.LONG_TIMEOUT);
-        explicitWait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(getByLocator(getDynamicXpath(locatorType, dynamicValues))));
+        waitForLocator(driver, GlobalConstants.LONG_TIMEOUT, AdaptiveWait.ALL_VISIBLE, locatorType, dynamicValues);
     }
 
     /**
@@ -902,8 +1272,7 @@ public class BasePage {
      * @param locatorType
      */
     protected void waitForElementInvisible(WebDriver driver, String locatorType) {
-        WebDriverWait explicitWait = new WebDriverWait(driver, GlobalConstants.LONG_TIMEOUT);
-        explicitWait.until(ExpectedConditions.invisibilityOfElementLocated(getByLocator(locatorType)));
+        waitForLocator(driver, GlobalConstants.LONG_TIMEOUT, AdaptiveWait.INVISIBLE, locatorType);
     }
 
     /**
@@ -913,8 +1282,7 @@ public class BasePage {
      * @param dynamicValues
      */
     protected void waitForElementInvisible(WebDriver driver, String locatorType, String... dynamicValues) {
-        WebDriverWait explicitWait = new WebDriverWait(driver, GlobalConstants.LONG_TIMEOUT);
-        explicitWait.until(ExpectedConditions.invisibilityOfElementLocated(getByLocator(getDynamicXpath(locatorType, dynamicValues))));
+        waitForLocator(driver, GlobalConstants.LONG_TIMEOUT, AdaptiveWait.INVISIBLE, locatorType, dynamicValues);
     }
 
     /**
@@ -923,9 +1291,8 @@ public class BasePage {
      * @param locatorType
      */
     protected void waitForElementUndisplayed(WebDriver driver, String locatorType) {
-        WebDriverWait explicitWait = new WebDriverWait(driver, shortTimeOut);
         overrideGlobalTimeout(driver, shortTimeOut);
-        explicitWait.until(ExpectedConditions.invisibilityOfElementLocated(getByLocator(locatorType)));
+        waitForLocator(driver, shortTimeOut, AdaptiveWait.INVISIBLE, locatorType);
         overrideGlobalTimeout(driver, longTimeOut);
     }
 
@@ -936,9 +1303,8 @@ public class BasePage {
      * @param dynamicValues
      */
     protected void waitForElementUndisplayed(WebDriver driver, String locatorType, String... dynamicValues) {
-        WebDriverWait explicitWait = new WebDriverWait(driver, shortTimeOut);
         overrideGlobalTimeout(driver, shortTimeOut);
-        explicitWait.until(ExpectedConditions.invisibilityOfElementLocated(getByLocator(getDynamicXpath(locatorType, dynamicValues))));
+        waitForLocator(driver, shortTimeOut, AdaptiveWait.INVISIBLE, locatorType, dynamicValues);
         overrideGlobalTimeout(driver, longTimeOut);
     }
 
@@ -948,8 +1314,7 @@ public class BasePage {
      * @param locatorType
      */
     protected void waitForAllElementInvisible(WebDriver driver, String locatorType) {
-        WebDriverWait explicitWait = new WebDriverWait(driver, GlobalConstants.LONG_TIMEOUT);
-        explicitWait.until(ExpectedConditions.invisibilityOfAllElements(getListWebElements(driver, locatorType)));
+        waitForLocator(driver, GlobalConstants.LONG_TIMEOUT, AdaptiveWait.ALL_INVISIBLE, locatorType);
     }
 
     /**
@@ -959,8 +1324,7 @@ public class BasePage {
      * @param dynamicValues
      */
     protected void waitForAllElementInvisible(WebDriver driver, String locatorType, String... dynamicValues) {
-        WebDriverWait explicitWait = new WebDriverWait(driver, GlobalConstants.LONG_TIMEOUT);
-        explicitWait.until(ExpectedConditions.invisibilityOfAllElements(getListWebElements(driver, getDynamicXpath(locatorType, dynamicValues))));
+        waitForLocator(driver, GlobalConstants.LONG_TIMEOUT, AdaptiveWait.ALL_INVISIBLE, locatorType, dynamicValues);
     }
 
     /**
@@ -969,8 +1333,7 @@ public class BasePage {
      * @param locatorType
      */
     protected void waitForElementClickable(WebDriver driver, String locatorType) {
-        WebDriverWait explicitWait = new WebDriverWait(driver, GlobalConstants.LONG_TIMEOUT);
-        explicitWait.until(ExpectedConditions.elementToBeClickable(getByLocator(locatorType)));
+        waitForLocator(driver, GlobalConstants.LONG_TIMEOUT, AdaptiveWait.CLICKABLE, locatorType);
     }
 
     /**
@@ -980,8 +1343,84 @@ public class BasePage {
      * @param dynamicValues
      */
     protected void waitForElementClickable(WebDriver driver, String locatorType, String... dynamicValues) {
-        WebDriverWait explicitWait = new WebDriverWait(driver, GlobalConstants.LONG_TIMEOUT);
-        explicitWait.until(ExpectedConditions.elementToBeClickable(getByLocator(getDynamicXpath(locatorType, dynamicValues))));
+        waitForLocator(driver, GlobalConstants.LONG_TIMEOUT, AdaptiveWait.CLICKABLE, locatorType, dynamicValues);
+    }
+
+    /**
+     * Wait for element is clickable
+     * @param driver
+     * @param locator
+     */
+    protected void waitForElementClickable(WebDriver driver, Locator locator) {
+        waitForLocator(driver, GlobalConstants.LONG_TIMEOUT, AdaptiveWait.CLICKABLE, locator);
+    }
+
+    /**
+     * Wait for a condition on a locator with the configured backend (DomWait); elements found by the
+     * visible/clickable waits are kept in the element cache
+     */
+    private void waitForLocator(WebDriver driver, long timeOut, String condition, String locatorType, String... dynamicValues) {
+        String locator = dynamicValues.length == 0 ? locatorType : String.format(locatorType, (Object[]) dynamicValues);
+        LocatorType type = getLocatorType(locator);
+        By by = getByLocator(locatorType, dynamicValues);
+        cacheWaitResult(by, DomWait.until(driver, timeOut, condition, type, locator.substring(type.getPrefix().length()), by));
+    }
+
+    private void waitForLocator(WebDriver driver, long timeOut, String condition, Locator locator) {
+        cacheWaitResult(locator.getBy(), DomWait.until(driver, timeOut, condition, locator.getType(), locator.getValue(), locator.getBy()));
+    }
+
+    private void cacheWaitResult(By by, Object result) {
+        if (result instanceof WebElement) {
+            elementCache.put(by, (WebElement) result);
+        }
+    }
+
+    /**
+     * Wait for the element to be clickable, then click it. With -DinBrowserWaits=true the wait and the click
+     * run inside the page in one round trip
+     * @param driver
+     * @param locator
+     */
+    protected void waitAndClick(WebDriver driver, Locator locator) {
+        if (GlobalConstants.IN_BROWSER_WAITS) {
+            InBrowserWait.run(driver, locator, InBrowserWait.CLICKABLE, InBrowserWait.CLICK, null);
+            elementCache.invalidate();
+        } else {
+            waitForElementClickable(driver, locator);
+            clickToElement(driver, locator);
+        }
+    }
+
+    /**
+     * Wait for the element to be visible, then read its text. With -DinBrowserWaits=true the wait and the read
+     * run inside the page in one round trip
+     * @param driver
+     * @param locator
+     * @return
+     */
+    protected String waitAndGetText(WebDriver driver, Locator locator) {
+        if (GlobalConstants.IN_BROWSER_WAITS) {
+            return InBrowserWait.run(driver, locator, InBrowserWait.VISIBLE, InBrowserWait.TEXT, null);
+        }
+        waitForElementVisible(driver, locator);
+        return getElementText(driver, locator);
+    }
+
+    /**
+     * Wait for the element to be visible, then replace its value. With -DinBrowserWaits=true the wait and the
+     * typing run inside the page in one round trip
+     * @param driver
+     * @param locator
+     * @param textValue
+     */
+    protected void waitAndType(WebDriver driver, Locator locator, String textValue) {
+        if (GlobalConstants.IN_BROWSER_WAITS) {
+            InBrowserWait.run(driver, locator, InBrowserWait.VISIBLE, InBrowserWait.TYPE, textValue);
+        } else {
+            waitForElementVisible(driver, locator);
+            sendkeysToElement(driver, locator, textValue);
+        }
     }
 
     /**
@@ -1005,8 +1444,7 @@ public class BasePage {
      * @param menuText
      */
     public void clickOnHeaderLinkByText(WebDriver driver, String menuText) {
-        waitForElementVisible(driver, BaseUI.HEADER_MENU_LINK_TEXT, menuText);
-        clickToElement(driver, BaseUI.HEADER_MENU_LINK_TEXT, menuText);
+        waitAndClick(driver, BaseLocators.HEADER_MENU_LINK_TEXT.format(menuText));
     }
 
     /**
@@ -1027,12 +1465,30 @@ public class BasePage {
         closeAllWindowsWithoutParent(driver, getParentId(driver));
     }
 
+    /**
+     * Save the current page as a named checkpoint so other tests can start from it
+     * @param driver
+     * @param checkpointName
+     */
+    public void saveCheckpoint(WebDriver driver, String checkpointName) {
+        captureCheckpoint(driver, checkpointName);
+    }
+
+    /**
+     * Start from a named checkpoint saved earlier in the suite
+     * @param driver
+     * @param checkpointName
+     * @return false when the checkpoint was not saved yet and the test has to navigate itself
+     */
+    public boolean openCheckpoint(WebDriver driver, String checkpointName) {
+        return restoreCheckpoint(driver, checkpointName);
+    }
+
     /**
      * Click on the mini cart at header menu to navigate to check out page
      * @param driver
      */
     public void clickOnItemAtMiniCart(WebDriver driver) {
-        waitForElementClickable(driver, BaseUI.MINI_CART);
-        clickToElement(driver, BaseUI.MINI_CART);
+        waitAndClick(driver, BaseLocators.MINI_CART);
     }
 }
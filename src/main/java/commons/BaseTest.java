@@ -1,8 +1,10 @@
 package commons;
 
-import factoryEnvironment.BrowserStackFactory;
-import factoryEnvironment.GridFactory;
-import factoryEnvironment.LocalFactory;
+import factoryEnvironment.DriverFactory;
+import factoryEnvironment.DriverServiceManager;
+import factoryEnvironment.DriverSession;
+import factoryEnvironment.DriverSessionPool;
+import factoryEnvironment.SessionTeardown;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.joda.time.DateTime;
@@ -10,16 +12,15 @@ import org.joda.time.DateTimeZone;
 import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
 import org.testng.Reporter;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.Random;
-import java.util.concurrent.TimeUnit;
 
 public class BaseTest {
     protected final Log log;
-    private WebDriver driver;
+    private final ThreadLocal<DriverSession> session = new ThreadLocal<>();
 
     protected BaseTest() {
         log = LogFactory.getLog(getClass());
@@ -30,29 +31,37 @@ public class BaseTest {
         deleteAllureReport();
     }
 
+    @AfterSuite(alwaysRun = true)
+    public void cleanAfterSuite() {
+        SessionTeardown.getTeardown().drain();
+        DriverSessionPool.getPool().shutdown();
+        DriverServiceManager.stopAll();
+        BrowserCheckpoint.clearAll();
+        WaitHistory.save();
+        log.info("Suite finished: " + ElementCache.summary() + ", fixed sleeps " + SleepAccounting.getTotalMillis() + "ms");
+    }
+
     protected WebDriver getBrowserDriver(String browserName, String enviromentName, String envName, String ipAddress, String portNumber, String osName, String osVersion) {
-        switch (envName) {
-            case "local":
-                driver = new LocalFactory(browserName).createDriver();
-                break;
-            case "browserStack":
-                driver = new BrowserStackFactory(browserName, osName, osVersion).createDriver();
-                break;
-            case "grid":
-                driver = new GridFactory(browserName, ipAddress, portNumber).createDriver();
-                break;
-            default:
-                driver = new LocalFactory(browserName).createDriver();
-                break;
+        DriverFactory factory = DriverFactory.forEnvironment(envName, browserName, ipAddress, portNumber, osName, osVersion);
+        DriverSession driverSession;
+        if (GlobalConstants.SESSION_POOL_ENABLED) {
+            driverSession = DriverSessionPool.getPool().borrow(factory);
+        } else {
+            driverSession = DriverSession.open(factory);
         }
-        driver.manage().timeouts().implicitlyWait(GlobalConstants.LONG_TIMEOUT, TimeUnit.SECONDS);
-        driver.manage().window().maximize();
+        session.set(driverSession);
+        WebDriver driver = driverSession.getDriver();
         driver.get(enviromentName);
         return driver;
     }
 
+    /**
+     * Driver of the session owned by the current test thread
+     * @return
+     */
     public WebDriver getDriverInstance() {
-        return this.driver;
+        DriverSession driverSession = session.get();
+        return driverSession == null ? null : driverSession.getDriver();
     }
 
     protected boolean verifyTrue(boolean condition) {
@@ -125,64 +134,17 @@ public class BaseTest {
     }
 
     protected void closeBrowserAndDriver() {
-        String cmd = "";
-        try {
-            String osName = System.getProperty("os.name").toLowerCase();
-            log.info("OS name = " + osName);
-
-            String driverInstanceName = driver.toString().toLowerCase();
-            log.info("Driver instance name = " + driverInstanceName);
-
-            if (driverInstanceName.contains("chrome")) {
-                if (osName.contains("window")) {
-                    cmd = "taskkill /F /FI \"IMAGENAME eq chromedriver*\"";
-                } else {
-                    cmd = "pkill chromedriver";
-                }
-            } else if (driverInstanceName.contains("internetexplorer")) {
-                if (osName.contains("window")) {
-                    cmd = "taskkill /F /FI \"IMAGENAME eq IEDriverServer*\"";
-                }
-            } else if (driverInstanceName.contains("firefox")) {
-                if (osName.contains("windows")) {
-                    cmd = "taskkill /F /FI \"IMAGENAME eq geckodriver*\"";
-                } else {
-                    cmd = "pkill geckodriver";
-                }
-            } else if (driverInstanceName.contains("edge")) {
-                if (osName.contains("window")) {
-                    cmd = "taskkill /F /FI \"IMAGENAME eq msedgedriver*\"";
-                } else {
-                    cmd = "pkill msedgedriver";
-                }
-            } else if (driverInstanceName.contains("opera")) {
-                if (osName.contains("window")) {
-                    cmd = "taskkill /F /FI \"IMAGENAME eq operadriver*\"";
-                } else {
-                    cmd = "pkill operadriver";
-                }
-            } else if (driverInstanceName.contains("safari")) {
-                if (osName.contains("mac")) {
-                    cmd = "pkill safaridriver";
-                }
-            }
-
-            if (driver != null) {
-                driver.manage().deleteAllCookies();
-                driver.quit();
-            }
-        } catch (Exception e) {
-            log.info(e.getMessage());
-        } finally {
-            try {
-                Process process = Runtime.getRuntime().exec(cmd);
-                process.waitFor();
-            } catch (IOException e) {
-                e.printStackTrace();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
+        DriverSession driverSession = session.get();
+        session.remove();
+        if (driverSession == null) {
+            return;
         }
+        if (GlobalConstants.SESSION_POOL_ENABLED) {
+            DriverSessionPool.getPool().releaseAsync(driverSession);
+            return;
+        }
+
+        SessionTeardown.getTeardown().submit(driverSession, driverSession::close);
     }
 
     protected String getCurrentDay() {
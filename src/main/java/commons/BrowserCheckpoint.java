@@ -0,0 +1,79 @@
+package commons;
+
+import org.openqa.selenium.Cookie;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Browser state captured after a navigation prefix (url, cookies, local and session storage),
+ * so later tests can restore it instead of clicking through the prefix again.
+ * Checkpoints live until the end of the suite
+ */
+public class BrowserCheckpoint {
+    private static final Map<String, BrowserCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final String url;
+    private final Set<Cookie> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+
+    BrowserCheckpoint(String name, String url, Set<Cookie> cookies, Map<String, String> localStorage, Map<String, String> sessionStorage) {
+        this.name = name;
+        this.url = url;
+        this.cookies = Collections.unmodifiableSet(new LinkedHashSet<>(cookies));
+        this.localStorage = Collections.unmodifiableMap(new LinkedHashMap<>(localStorage));
+        this.sessionStorage = Collections.unmodifiableMap(new LinkedHashMap<>(sessionStorage));
+    }
+
+    static void save(BrowserCheckpoint checkpoint) {
+        checkpoints.put(checkpoint.getName(), checkpoint);
+    }
+
+    /**
+     * Checkpoint saved earlier in the suite
+     * @param name
+     * @return the checkpoint, or null when no test saved it yet
+     */
+    public static BrowserCheckpoint find(String name) {
+        return checkpoints.get(name);
+    }
+
+    /**
+     * Forget every checkpoint, called once the suite is finished
+     */
+    public static void clearAll() {
+        checkpoints.clear();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Set<Cookie> getCookies() {
+        return cookies;
+    }
+
+    public Map<String, String> getLocalStorage() {
+        return localStorage;
+    }
+
+    public Map<String, String> getSessionStorage() {
+        return sessionStorage;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + url + ", " + cookies.size() + " cookies, " + localStorage.size() + " local / "
+                + sessionStorage.size() + " session storage items)";
+    }
+}
@@ -0,0 +1,123 @@
+package commons;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads one property of every element matching a locator in a single executeScript call, instead of one
+ * findElements plus one WebDriver command per element.
+ * The locator is resolved inside the page (LOCATE_ALL), so the elements never travel to the client
+ */
+final class DomReader {
+    /**
+     * JS function locateAll(type, value) returning the elements of a LocatorType name and value, in document order
+     */
+    static final String LOCATE_ALL =
+            "function locateAll(type, value) {"
+                    + "  switch (type) {"
+                    + "    case 'ID': var el = document.getElementById(value); return el ? [el] : [];"
+                    + "    case 'CLASS': return Array.prototype.slice.call(document.getElementsByClassName(value));"
+                    + "    case 'NAME': return Array.prototype.slice.call(document.getElementsByName(value));"
+                    + "    case 'CSS': return Array.prototype.slice.call(document.querySelectorAll(value));"
+                    + "    default:"
+                    + "      var found = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), all = [];"
+                    + "      for (var i = 0; i < found.snapshotLength; i++) { all.push(found.snapshotItem(i)); }"
+                    + "      return all;"
+                    + "  }"
+                    + "}";
+
+    /**
+     * JS function displayed(el), close to WebElement.isDisplayed for ordinary elements
+     */
+    static final String DISPLAYED =
+            "function displayed(el) {"
+                    + "  return el.getClientRects().length > 0 && window.getComputedStyle(el).visibility !== 'hidden';"
+                    + "}";
+
+    private static final String READ_ALL = LOCATE_ALL + DISPLAYED
+            + "function text(el) { return el.innerText.replace(/^\\s+|\\s+$/g, ''); }"
+            + "function attribute(el, name) {"
+            + "  var property = el[name];"
+            + "  if (typeof property === 'boolean') { return property ? 'true' : null; }"
+            + "  if (property !== undefined && property !== null && typeof property !== 'object' && typeof property !== 'function') { return String(property); }"
+            + "  return el.getAttribute(name);"
+            + "}"
+            + "function rect(el) {"
+            + "  var r = el.getBoundingClientRect();"
+            + "  return {x: r.left + window.pageXOffset, y: r.top + window.pageYOffset, width: r.width, height: r.height};"
+            + "}"
+            + "var reader = arguments[2], argument = arguments[3];"
+            + "return locateAll(arguments[0], arguments[1]).map(function (el) {"
+            + "  switch (reader) {"
+            + "    case 'text': return text(el);"
+            + "    case 'attribute': return attribute(el, argument);"
+            + "    case 'css': return window.getComputedStyle(el).getPropertyValue(argument);"
+            + "    case 'displayed': return displayed(el);"
+            + "    default: return rect(el);"
+            + "  }"
+            + "});";
+
+    private static final String FIND_BY_TEXT = LOCATE_ALL
+            + "var items = locateAll(arguments[0], arguments[1]);"
+            + "for (var i = 0; i < items.length; i++) {"
+            + "  if (items[i].innerText.replace(/^\\s+|\\s+$/g, '') === arguments[2]) {"
+            + "    items[i].scrollIntoView(true);"
+            + "    return items[i];"
+            + "  }"
+            + "}"
+            + "return null;";
+
+    private DomReader() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<String> texts(WebDriver driver, LocatorType type, String value) {
+        return (List<String>) readAll(driver, type, value, "text", null);
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<String> attributes(WebDriver driver, LocatorType type, String value, String attributeName) {
+        return (List<String>) readAll(driver, type, value, "attribute", attributeName);
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<String> cssValues(WebDriver driver, LocatorType type, String value, String propertyName) {
+        return (List<String>) readAll(driver, type, value, "css", propertyName);
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Boolean> displayedFlags(WebDriver driver, LocatorType type, String value) {
+        return (List<Boolean>) readAll(driver, type, value, "displayed", null);
+    }
+
+    static List<Rectangle> rects(WebDriver driver, LocatorType type, String value) {
+        List<Rectangle> rects = new ArrayList<>();
+        for (Object rect : readAll(driver, type, value, "rect", null)) {
+            Map<?, ?> r = (Map<?, ?>) rect;
+            rects.add(new Rectangle(toInt(r.get("x")), toInt(r.get("y")), toInt(r.get("height")), toInt(r.get("width"))));
+        }
+        return rects;
+    }
+
+    /**
+     * The first element of the locator whose trimmed text is the expected one, already scrolled into view
+     * @return the element, or null when no element has that text (yet)
+     */
+    static WebElement findByText(WebDriver driver, LocatorType type, String value, String text) {
+        return (WebElement) ((JavascriptExecutor) driver).executeScript(FIND_BY_TEXT, type.name(), value, text);
+    }
+
+    private static List<?> readAll(WebDriver driver, LocatorType type, String value, String reader, String argument) {
+        return (List<?>) ((JavascriptExecutor) driver).executeScript(READ_ALL, type.name(), value, reader, argument);
+    }
+
+    private static int toInt(Object number) {
+        return (int) Math.round(((Number) number).doubleValue());
+    }
+}
@@ -0,0 +1,131 @@
+package commons;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backend of the BasePage element waits (AdaptiveWait conditions VISIBLE, CLICKABLE, INVISIBLE, ALL_VISIBLE,
+ * ALL_INVISIBLE).
+ * With -DwaitBackend=observer the condition is evaluated inside the page: once right away, then on every DOM
+ * mutation reported by a MutationObserver (plus a slow timer for style-only changes), so the wait returns
+ * right after the DOM change instead of at the next polling tick. The whole wait is one executeAsyncScript.
+ * When the script cannot finish (the page navigated and the script was dropped, or the driver runs no script)
+ * the rest of the timeout is spent in the usual polling wait. The default backend, "polling", only polls
+ */
+final class DomWait {
+    private static final Log log = LogFactory.getLog(DomWait.class);
+    private static final long STYLE_CHECK_MILLIS = 250;
+
+    private static final String OBSERVE = DomReader.LOCATE_ALL + DomReader.DISPLAYED
+            + "var type = arguments[0], value = arguments[1], condition = arguments[2], timeout = arguments[3],"
+            + " styleCheck = arguments[4], done = arguments[arguments.length - 1];"
+            + "function check() {"
+            + "  var all = locateAll(type, value), first = all[0];"
+            + "  switch (condition) {"
+            + "    case 'visible': return first && displayed(first) ? {element: first} : null;"
+            + "    case 'clickable': return first && displayed(first) && !first.disabled ? {element: first} : null;"
+            + "    case 'invisible': return !first || !displayed(first) ? {satisfied: true} : null;"
+            + "    case 'allVisible': return all.length > 0 && all.every(displayed) ? {satisfied: true} : null;"
+            + "    default: return all.every(function (el) { return !displayed(el); }) ? {satisfied: true} : null;"
+            + "  }"
+            + "}"
+            + "var observer, timer, styleTimer, finished = false;"
+            + "function finish(result) {"
+            + "  if (finished) { return; }"
+            + "  finished = true;"
+            + "  if (observer) { observer.disconnect(); }"
+            + "  clearTimeout(timer);"
+            + "  clearInterval(styleTimer);"
+            + "  done(result);"
+            + "}"
+            + "function evaluate() {"
+            + "  try { var result = check(); if (result) { finish(result); } } catch (e) { finish({error: e.message}); }"
+            + "}"
+            + "evaluate();"
+            + "if (!finished) {"
+            + "  observer = new MutationObserver(evaluate);"
+            + "  observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true, characterData: true});"
+            + "  styleTimer = setInterval(evaluate, styleCheck);"
+            + "  timer = setTimeout(function () { finish({timeout: true}); }, timeout);"
+            + "}";
+
+    private DomWait() {
+    }
+
+    /**
+     * Wait for the condition on the locator
+     * @return the element for VISIBLE and CLICKABLE, the value of the polling condition otherwise
+     */
+    static Object until(WebDriver driver, long timeOutInSeconds, String condition, LocatorType type, String value, By by) {
+        long timeOutMillis = TimeUnit.SECONDS.toMillis(timeOutInSeconds);
+        long start = System.currentTimeMillis();
+        if (GlobalConstants.OBSERVER_WAITS) {
+            Object observed = observe(driver, timeOutMillis, condition, type, value, by);
+            if (observed != null) {
+                return observed;
+            }
+        }
+        long remainingSeconds = Math.max(1, (long) Math.ceil((timeOutMillis - (System.currentTimeMillis() - start)) / 1000.0));
+        return AdaptiveWait.forLocator(driver, remainingSeconds, condition, by).until(pollingCondition(condition, by));
+    }
+
+    /**
+     * @return the element, TRUE when the condition holds, or null when polling must take over
+     */
+    private static Object observe(WebDriver driver, long timeOutMillis, String condition, LocatorType type, String value, By by) {
+        Object result;
+        try {
+            result = ((JavascriptExecutor) driver).executeAsyncScript(OBSERVE, type.name(), value, condition, timeOutMillis, STYLE_CHECK_MILLIS);
+        } catch (ScriptTimeoutException | TimeoutException e) {
+            throw timedOut(timeOutMillis, condition, by, e);
+        } catch (WebDriverException e) {
+            log.debug("Observer wait for " + condition + " " + by + " interrupted, polling instead: " + e.getMessage());
+            return null;
+        }
+        if (!(result instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> outcome = (Map<?, ?>) result;
+        if (outcome.containsKey("timeout")) {
+            throw timedOut(timeOutMillis, condition, by, null);
+        }
+        if (outcome.containsKey("error")) {
+            log.debug("Observer wait for " + condition + " " + by + " failed in the page, polling instead: " + outcome.get("error"));
+            return null;
+        }
+        return outcome.containsKey("element") ? outcome.get("element") : Boolean.TRUE;
+    }
+
+    private static TimeoutException timedOut(long timeOutMillis, String condition, By by, Throwable cause) {
+        return new TimeoutException("Expected condition failed: waiting for " + by + " to be " + condition
+                + " (observed for " + timeOutMillis + " ms)", cause);
+    }
+
+    private static ExpectedCondition<?> pollingCondition(String condition, By by) {
+        switch (condition) {
+            case AdaptiveWait.VISIBLE:
+                return ExpectedConditions.visibilityOfElementLocated(by);
+            case AdaptiveWait.CLICKABLE:
+                return ExpectedConditions.elementToBeClickable(by);
+            case AdaptiveWait.INVISIBLE:
+                return ExpectedConditions.invisibilityOfElementLocated(by);
+            case AdaptiveWait.ALL_VISIBLE:
+                return ExpectedConditions.visibilityOfAllElementsLocatedBy(by);
+            case AdaptiveWait.ALL_INVISIBLE:
+                return driver -> ExpectedConditions.invisibilityOfAllElements(driver.findElements(by)).apply(driver);
+            default:
+                throw new IllegalArgumentException("Unknown wait condition " + condition);
+        }
+    }
+}
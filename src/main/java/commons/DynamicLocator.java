@@ -0,0 +1,39 @@
+package commons;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Locator template with %s placeholders. Formatted locators are kept per template, up to a bound,
+ * so repeated calls with the same values reuse the same parsed Locator
+ */
+abstract class DynamicLocator {
+    private static final int MAX_FORMATTED = 256;
+
+    private final String name;
+    private final LocatorType type;
+    private final String template;
+    private final Map<Object, Locator> formatted = new ConcurrentHashMap<>();
+
+    DynamicLocator(String name, LocatorType type, String template) {
+        this.name = name;
+        this.type = type;
+        this.template = template;
+    }
+
+    Locator formatValues(Object key, Object... values) {
+        Locator locator = formatted.get(key);
+        if (locator == null) {
+            if (formatted.size() >= MAX_FORMATTED) {
+                formatted.clear();
+            }
+            locator = formatted.computeIfAbsent(key, k -> Locator.of(name, type, String.format(template, values)));
+        }
+        return locator;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + type.getPrefix() + template + ")";
+    }
+}
@@ -0,0 +1,176 @@
+package commons;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WebElement handles resolved by one page object, keyed by locator, so a locator that is waited for and then
+ * clicked (or read several times) is looked up in the browser once.
+ * The handles belong to the current page generation: BasePage invalidates the cache whenever it navigates, clicks
+ * or switches window/frame, and a handle that went stale anyway (ajax re-render) is dropped and the call on the
+ * element returned from {@link #find(WebDriver, By)} is retried once on a fresh lookup, reads and actions alike.
+ * A staleness check (ExpectedConditions.stalenessOf) must be given the raw handle from getWrappedElement, since
+ * the returned element itself never goes stale.
+ * Two returned elements are equal when they come from the same cache and locator, so equals and hashCode never
+ * go to the browser.
+ * A page object is used by one test thread, so the map is not synchronized; the counters are global
+ */
+public class ElementCache {
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder staleRefinds = new LongAdder();
+
+    private final Map<By, WebElement> elements = new HashMap<>();
+
+    /**
+     * Element of the locator: the cached handle, or a new lookup. The returned element re-finds itself
+     * if the handle turns out to be stale
+     * @param driver
+     * @param by
+     * @return
+     */
+    public WebElement find(WebDriver driver, By by) {
+        return (WebElement) Proxy.newProxyInstance(ElementCache.class.getClassLoader(),
+                new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class},
+                new CachedElement(driver, by));
+    }
+
+    /**
+     * Remember an element the caller already resolved, e.g. the one returned by an explicit wait
+     * @param by
+     * @param element
+     */
+    public void put(By by, WebElement element) {
+        if (element != null) {
+            elements.put(by, element);
+        }
+    }
+
+    /**
+     * Forget every handle, called when the page generation changes
+     */
+    public void invalidate() {
+        elements.clear();
+    }
+
+    /**
+     * Handler of the elements returned by find: every WebElement call goes to the cached handle of the locator
+     */
+    private class CachedElement implements InvocationHandler {
+        private final WebDriver driver;
+        private final By by;
+
+        private CachedElement(WebDriver driver, By by) {
+            this.driver = driver;
+            this.by = by;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeOnObject(method, args);
+            }
+            if ("getWrappedElement".equals(method.getName())) {
+                return resolve(driver, by);
+            }
+            try {
+                return method.invoke(resolve(driver, by), args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof StaleElementReferenceException)) {
+                    throw e.getCause();
+                }
+                elements.remove(by);
+            }
+            staleRefinds.increment();
+            try {
+                return method.invoke(resolve(driver, by), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private Object invokeOnObject(Method method, Object[] args) {
+            switch (method.getName()) {
+                case "equals":
+                    return args[0] != null && Proxy.isProxyClass(args[0].getClass())
+                            && Proxy.getInvocationHandler(args[0]) instanceof CachedElement
+                            && isSameElement((CachedElement) Proxy.getInvocationHandler(args[0]));
+                case "hashCode":
+                    return 31 * System.identityHashCode(ElementCache.this) + by.hashCode();
+                default:
+                    return "Cached element " + by;
+            }
+        }
+
+        private boolean isSameElement(CachedElement other) {
+            return other.cache() == ElementCache.this && other.by.equals(by);
+        }
+
+        private ElementCache cache() {
+            return ElementCache.this;
+        }
+    }
+
+    private WebElement resolve(WebDriver driver, By by) {
+        WebElement element = elements.get(by);
+        if (element != null) {
+            hits.increment();
+            return element;
+        }
+        misses.increment();
+        element = GlobalConstants.EXPLICIT_WAITS_ONLY ? findPresent(driver, by) : driver.findElement(by);
+        elements.put(by, element);
+        return element;
+    }
+
+    /**
+     * Without an implicit wait, wait for presence explicitly. The first check is immediate, and a missing element
+     * still ends in NoSuchElementException, as it does with the implicit wait
+     */
+    private WebElement findPresent(WebDriver driver, By by) {
+        try {
+            return AdaptiveWait.forLocator(driver, GlobalConstants.LONG_TIMEOUT, AdaptiveWait.PRESENT, by)
+                    .until(ExpectedConditions.presenceOfElementLocated(by));
+        } catch (TimeoutException e) {
+            throw new NoSuchElementException("Cannot locate " + by + " after " + GlobalConstants.LONG_TIMEOUT + " second(s)", e);
+        }
+    }
+
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    public static long getStaleRefinds() {
+        return staleRefinds.sum();
+    }
+
+    /**
+     * One-line summary for the end-of-suite log
+     * @return
+     */
+    public static String summary() {
+        long hit = getHits();
+        long total = hit + getMisses();
+        return "element cache hits=" + hit + " misses=" + getMisses() + " staleRefinds=" + getStaleRefinds()
+                + " hitRatio=" + (total == 0 ? "n/a" : String.format("%.1f%%", 100.0 * hit / total));
+    }
+}
@@ -8,11 +8,48 @@ public class GlobalConstants {
     public static final String UPLOAD_FILE = PROJECT_PATH + File.separator + "uploadFiles" + File.separator;
     public static final String DOWNLOAD_FILE = PROJECT_PATH + File.separator + "downloadFiles";
     public static final String BROWSER_LOG = PROJECT_PATH + File.separator + "browserLogs";
+    public static final String BROWSER_EXTENSION = PROJECT_PATH + File.separator + "browserExtension" + File.separator;
+    public static final String PROFILE_CACHE = PROJECT_PATH + File.separator + "browserProfiles";
+    public static final String DRIVER_CACHE = PROJECT_PATH + File.separator + "driverCache";
+    public static final String WAIT_HISTORY_FILE = System.getProperty("waitHistory.file", PROJECT_PATH + File.separator + "waitHistory" + File.separator + "wait-history.bin");
     public static final String REPORTNG_SCREENSHOT = PROJECT_PATH + File.separator + "reportNGImage" + File.separator;
 
     public static final long SHORT_TIMEOUT = 5;
     public static final long LONG_TIMEOUT = 30;
     public static final long RETRY_TEST_FAIL = 3;
+    public static final int THREAD_COUNT = Integer.getInteger("threads", 1);
+    public static final boolean SESSION_POOL_ENABLED = Boolean.parseBoolean(System.getProperty("sessionPool", "true"));
+    public static final int SESSION_POOL_MIN_SIZE = Integer.getInteger("sessionPool.minSize", 1);
+    public static final int SESSION_POOL_MAX_SIZE = Integer.getInteger("sessionPool.maxSize", Math.max(4, THREAD_COUNT));
+    public static final int SESSION_POOL_MAX_REUSE = Integer.getInteger("sessionPool.maxReuse", 20);
+    public static final int SESSION_PREFETCH_DEPTH = Integer.getInteger("sessionPool.prefetchDepth", 1);
+    public static final long SESSION_CREATE_TIMEOUT = Long.getLong("sessionPool.createTimeout", 180);
+    public static final long SESSION_IDLE_TIMEOUT = Long.getLong("sessionPool.idleTimeout", 120);
+    public static final long SESSION_MAX_RSS_MB = Long.getLong("sessionPool.maxRssMb", 1536);
+    public static final double SESSION_LATENCY_FACTOR = Double.parseDouble(System.getProperty("sessionPool.latencyFactor", "3.0"));
+    public static final boolean ASYNC_TEARDOWN = Boolean.parseBoolean(System.getProperty("asyncTeardown", "true"));
+    public static final int TEARDOWN_THREADS = Integer.getInteger("teardown.threads", Math.max(2, THREAD_COUNT));
+    public static final long TEARDOWN_TIMEOUT = Long.getLong("teardown.timeout", 20);
+    public static final long NETWORK_QUIET_MILLIS = Long.getLong("networkIdle.quietMillis", 500);
+    public static final double SLEEP_WARN_RATIO = Double.parseDouble(System.getProperty("sleepAccounting.warnRatio", "0.5"));
+    public static final boolean ADAPTIVE_WAITS = Boolean.parseBoolean(System.getProperty("adaptiveWaits", "true"));
+    public static final boolean EXPLICIT_WAITS_ONLY = Boolean.getBoolean("explicitWaitsOnly");
+    public static final boolean OBSERVER_WAITS = "observer".equalsIgnoreCase(System.getProperty("waitBackend", "polling"));
+    public static final boolean IN_BROWSER_WAITS = Boolean.getBoolean("inBrowserWaits");
+    public static final boolean FAILURE_DOM_SNAPSHOT = Boolean.getBoolean("failureArtifacts.dom");
+    public static final boolean SCREENSHOT_ASYNC = Boolean.parseBoolean(System.getProperty("screenshot.async", "true"));
+    public static final int SCREENSHOT_THREADS = Integer.getInteger("screenshot.threads", 2);
+    public static final int SCREENSHOT_QUEUE_SIZE = Integer.getInteger("screenshot.queueSize", 8);
+    public static final String SCREENSHOT_FORMAT = System.getProperty("screenshot.format", "png");
+    public static final double SCREENSHOT_SCALE = Double.parseDouble(System.getProperty("screenshot.scale", "1.0"));
+    public static final float SCREENSHOT_JPEG_QUALITY = Float.parseFloat(System.getProperty("screenshot.jpegQuality", "0.8"));
+    public static final long SCREENSHOT_STORE_MAX_MB = Long.getLong("screenshotStore.maxMb", 256);
+    public static final long SCREENSHOT_STORE_MAX_AGE_DAYS = Long.getLong("screenshotStore.maxAgeDays", 14);
+    public static final boolean EXTENT_STREAMING = Boolean.getBoolean("extent.streaming");
+    public static final int EXTENT_SHARD_SIZE = Integer.getInteger("extent.shardSize", 100);
+    public static final boolean REUSE_DRIVER_SERVICE = Boolean.parseBoolean(System.getProperty("reuseDriverService", "true"));
+    public static final boolean PROFILE_TEMPLATES = Boolean.parseBoolean(System.getProperty("profileTemplates", "true"));
+    public static final boolean DRIVER_OFFLINE = Boolean.getBoolean("driverOffline");
     public static final String JAVA_VERSION = System.getProperty("java.version");
     public static final String BROWSER_NAME = "vannguyen_fXcelZ";
     public static final String BROWSER_ACCESS_KEY = "rg7tBFkEazjzz2kqmJoh";
@@ -0,0 +1,87 @@
+package commons;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.Map;
+
+/**
+ * Wait-then-act in one executeAsyncScript call: the page polls for the element itself and performs the action
+ * (click, read text, type) as soon as the condition holds, so the whole step costs one WebDriver round trip
+ * instead of a polling loop of commands, a find and the action.
+ * Clicking and typing are done with DOM events, not native input: the click is element.click() and typing sets
+ * the value and fires input/change, which is enough for the links, buttons and text boxes of the page objects.
+ * The click runs in a task after the result is returned, so a click that starts a navigation cannot unload the
+ * document while the driver is still collecting the async result
+ */
+final class InBrowserWait {
+    static final String VISIBLE = "visible";
+    static final String CLICKABLE = "clickable";
+
+    static final String CLICK = "click";
+    static final String TEXT = "text";
+    static final String TYPE = "type";
+
+    private static final long POLLING_MILLIS = 50;
+
+    private static final String SCRIPT = DomReader.LOCATE_ALL + DomReader.DISPLAYED
+            + "var type = arguments[0], value = arguments[1], condition = arguments[2], action = arguments[3],"
+            + " text = arguments[4], deadline = Date.now() + arguments[5], polling = arguments[6],"
+            + " done = arguments[arguments.length - 1];"
+            + "function find() { return locateAll(type, value)[0] || null; }"
+            + "function ready(el) {"
+            + "  return el && displayed(el) && (condition !== 'clickable' || !el.disabled);"
+            + "}"
+            + "function act(el) {"
+            + "  if (action === 'text') { return {text: el.innerText.replace(/^\\s+|\\s+$/g, '')}; }"
+            + "  el.scrollIntoView({block: 'center'});"
+            + "  if (action === 'click') { setTimeout(function () { el.click(); }, 0); return {}; }"
+            + "  el.focus();"
+            + "  Object.getOwnPropertyDescriptor(Object.getPrototypeOf(el), 'value').set.call(el, text);"
+            + "  el.dispatchEvent(new Event('input', {bubbles: true}));"
+            + "  el.dispatchEvent(new Event('change', {bubbles: true}));"
+            + "  return {};"
+            + "}"
+            + "(function poll() {"
+            + "  var el;"
+            + "  try { el = find(); } catch (e) { done({error: 'Invalid locator: ' + e.message}); return; }"
+            + "  if (ready(el)) {"
+            + "    try { done(act(el)); } catch (e) { done({error: action + ' failed: ' + e.message}); }"
+            + "  } else if (Date.now() > deadline) {"
+            + "    done({timeout: el ? 'found but not ' + condition : 'not found'});"
+            + "  } else {"
+            + "    setTimeout(poll, polling);"
+            + "  }"
+            + "})();";
+
+    private InBrowserWait() {
+    }
+
+    /**
+     * Wait until the element of the locator meets the condition, then run the action on it
+     * @param driver
+     * @param locator
+     * @param condition VISIBLE or CLICKABLE
+     * @param action CLICK, TEXT or TYPE
+     * @param text value to type, null for the other actions
+     * @return the element text for TEXT, null otherwise
+     */
+    static String run(WebDriver driver, Locator locator, String condition, String action, String text) {
+        Object result = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT, locator.getType().name(), locator.getValue(),
+                condition, action, text, GlobalConstants.LONG_TIMEOUT * 1000, POLLING_MILLIS);
+        if (!(result instanceof Map)) {
+            throw new WebDriverException("Unexpected in-browser wait result for " + locator + ": " + result);
+        }
+        Map<?, ?> outcome = (Map<?, ?>) result;
+        if (outcome.containsKey("timeout")) {
+            throw new TimeoutException("Expected condition failed: waiting for " + locator + " to be " + condition
+                    + " (tried for " + GlobalConstants.LONG_TIMEOUT + " second(s), element " + outcome.get("timeout") + ")");
+        }
+        if (outcome.containsKey("error")) {
+            throw new WebDriverException(outcome.get("error") + " (" + locator + ")");
+        }
+        return (String) outcome.get("text");
+    }
+}
@@ -0,0 +1,45 @@
+package commons;
+
+import org.openqa.selenium.By;
+
+/**
+ * A locator parsed once, when its class is loaded. The XxxLocators classes generated from pageUIs hold these
+ */
+public final class Locator {
+    private final String name;
+    private final LocatorType type;
+    private final String value;
+    private final By by;
+
+    private Locator(String name, LocatorType type, String value) {
+        this.name = name;
+        this.type = type;
+        this.value = value;
+        this.by = type.toBy(value);
+    }
+
+    public static Locator of(String name, LocatorType type, String value) {
+        return new Locator(name, type, value);
+    }
+
+    public By getBy() {
+        return by;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocatorType getType() {
+        return type;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + type.getPrefix() + value + ")";
+    }
+}
@@ -0,0 +1,19 @@
+package commons;
+
+/**
+ * Locator template with one %s placeholder
+ */
+public final class Locator1 extends DynamicLocator {
+
+    private Locator1(String name, LocatorType type, String template) {
+        super(name, type, template);
+    }
+
+    public static Locator1 of(String name, LocatorType type, String template) {
+        return new Locator1(name, type, template);
+    }
+
+    public Locator format(String value1) {
+        return formatValues(value1, value1);
+    }
+}
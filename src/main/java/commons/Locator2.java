@@ -0,0 +1,21 @@
+package commons;
+
+import java.util.Arrays;
+
+/**
+ * Locator template with two %s placeholders
+ */
+public final class Locator2 extends DynamicLocator {
+
+    private Locator2(String name, LocatorType type, String template) {
+        super(name, type, template);
+    }
+
+    public static Locator2 of(String name, LocatorType type, String template) {
+        return new Locator2(name, type, template);
+    }
+
+    public Locator format(String value1, String value2) {
+        return formatValues(Arrays.asList(value1, value2), value1, value2);
+    }
+}
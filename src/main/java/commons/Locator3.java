@@ -0,0 +1,21 @@
+package commons;
+
+import java.util.Arrays;
+
+/**
+ * Locator template with three %s placeholders
+ */
+public final class Locator3 extends DynamicLocator {
+
+    private Locator3(String name, LocatorType type, String template) {
+        super(name, type, template);
+    }
+
+    public static Locator3 of(String name, LocatorType type, String template) {
+        return new Locator3(name, type, template);
+    }
+
+    public Locator format(String value1, String value2, String value3) {
+        return formatValues(Arrays.asList(value1, value2, value3), value1, value2, value3);
+    }
+}
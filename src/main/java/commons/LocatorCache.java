@@ -0,0 +1,108 @@
+package commons;
+
+import org.openqa.selenium.By;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed "type=value" locators, so BasePage does not re-parse (and re-format) the same locator on every action.
+ * Static locators (the pageUIs constants) are few and kept for the whole run; dynamic locators are keyed by
+ * template plus values and bounded, because the values can come from test data
+ */
+public class LocatorCache {
+    private static final int MAX_DYNAMIC_LOCATORS = 1024;
+
+    private static final Map<String, By> staticLocators = new ConcurrentHashMap<>();
+    private static final Map<DynamicKey, By> dynamicLocators = new ConcurrentHashMap<>();
+
+    /**
+     * By of a static locator such as "xpath=//li[@id='wpmenucartli']"
+     * @param locatorType
+     * @return
+     */
+    public static By getBy(String locatorType) {
+        By by = staticLocators.get(locatorType);
+        if (by == null) {
+            by = staticLocators.computeIfAbsent(locatorType, LocatorCache::parse);
+        }
+        return by;
+    }
+
+    /**
+     * By of a dynamic locator: the %s placeholders of the template are filled with the values (any locator type)
+     * @param locatorType
+     * @param dynamicValues
+     * @return
+     */
+    public static By getBy(String locatorType, String... dynamicValues) {
+        if (dynamicValues == null || dynamicValues.length == 0) {
+            return getBy(locatorType);
+        }
+        DynamicKey key = new DynamicKey(locatorType, dynamicValues);
+        By by = dynamicLocators.get(key);
+        if (by == null) {
+            if (dynamicLocators.size() >= MAX_DYNAMIC_LOCATORS) {
+                evictDynamicLocators();
+            }
+            by = dynamicLocators.computeIfAbsent(key, k -> parse(String.format(locatorType, (Object[]) dynamicValues)));
+        }
+        return by;
+    }
+
+    /**
+     * Parse "type=value"; the type prefix is case-insensitive
+     * @param locatorType
+     * @return
+     */
+    static By parse(String locatorType) {
+        LocatorType type = LocatorType.of(locatorType);
+        if (type == null) {
+            throw new RuntimeException("Locator type not supported: " + locatorType);
+        }
+        return type.toBy(locatorType.substring(type.getPrefix().length()));
+    }
+
+    /**
+     * Drop a quarter of the dynamic locators. Order does not matter: a dropped entry is simply parsed again
+     */
+    private static void evictDynamicLocators() {
+        int toRemove = MAX_DYNAMIC_LOCATORS / 4;
+        Iterator<DynamicKey> keys = dynamicLocators.keySet().iterator();
+        while (toRemove-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static final class DynamicKey {
+        private final String template;
+        private final String[] values;
+        private final int hash;
+
+        private DynamicKey(String template, String[] values) {
+            this.template = template;
+            this.values = values.clone();
+            this.hash = 31 * template.hashCode() + Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof DynamicKey)) {
+                return false;
+            }
+            DynamicKey key = (DynamicKey) other;
+            return hash == key.hash && template.equals(key.template) && Arrays.equals(values, key.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
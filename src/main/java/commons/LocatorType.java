@@ -0,0 +1,65 @@
+package commons;
+
+import org.openqa.selenium.By;
+
+/**
+ * Locator types of the "type=value" locator strings, matched case-insensitively
+ */
+public enum LocatorType {
+    ID("id=") {
+        @Override
+        public By toBy(String value) {
+            return By.id(value);
+        }
+    },
+    CLASS("class=") {
+        @Override
+        public By toBy(String value) {
+            return By.className(value);
+        }
+    },
+    NAME("name=") {
+        @Override
+        public By toBy(String value) {
+            return By.name(value);
+        }
+    },
+    CSS("css=") {
+        @Override
+        public By toBy(String value) {
+            return By.cssSelector(value);
+        }
+    },
+    XPATH("xpath=") {
+        @Override
+        public By toBy(String value) {
+            return By.xpath(value);
+        }
+    };
+
+    private final String prefix;
+
+    LocatorType(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public abstract By toBy(String value);
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Type of a "type=value" locator string
+     * @param locatorType
+     * @return the type, or null when the prefix is unknown
+     */
+    public static LocatorType of(String locatorType) {
+        for (LocatorType type : values()) {
+            if (locatorType.regionMatches(true, 0, type.prefix, 0, type.prefix.length())) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
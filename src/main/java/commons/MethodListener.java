@@ -12,10 +12,14 @@ import java.util.List;
 
 public class MethodListener implements IInvokedMethodListener {
     private static final Log log = LogFactory.getLog(MethodListener.class);
+    public static final String SLEEP_MILLIS_ATTRIBUTE = "sleepMillis";
 
     @Override
     public void beforeInvocation(IInvokedMethod method, ITestResult result) {
         log.debug("Before invocation of " + method.getTestMethod().getMethodName());
+        if (method.isTestMethod()) {
+            SleepAccounting.startTest();
+        }
     }
 
     @Override
@@ -23,6 +27,8 @@ public class MethodListener implements IInvokedMethodListener {
         log.debug("After invocation of " + method.getTestMethod().getMethodName());
         Reporter.setCurrentTestResult(result);
         if (method.isTestMethod()) {
+            reportSleeps(method, result);
+
             VerificationFailures allFailures = VerificationFailures.getFailures();
 
             // Add an existing failure for the result to the failure list.
@@ -53,4 +59,25 @@ public class MethodListener implements IInvokedMethodListener {
             }
         }
     }
+
+    /**
+     * Attach the fixed sleep time of the test to its result, and flag the test when sleeping is
+     * at least sleepAccounting.warnRatio of its runtime
+     */
+    private void reportSleeps(IInvokedMethod method, ITestResult result) {
+        long slept = SleepAccounting.stopTest();
+        if (slept == 0) {
+            return;
+        }
+        result.setAttribute(SLEEP_MILLIS_ATTRIBUTE, slept);
+        long runtime = Math.max(1, System.currentTimeMillis() - result.getStartMillis());
+        if (slept >= GlobalConstants.SLEEP_WARN_RATIO * runtime) {
+            String message = method.getTestMethod().getMethodName() + " slept " + slept + "ms of its " + runtime
+                    + "ms runtime in fixed sleeps, replace them with explicit waits";
+            log.warn(message);
+            Reporter.log(message);
+        } else {
+            log.debug(method.getTestMethod().getMethodName() + " slept " + slept + "ms of its " + runtime + "ms runtime");
+        }
+    }
 }
\ No newline at end of file
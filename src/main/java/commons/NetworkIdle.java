@@ -0,0 +1,68 @@
+package commons;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+/**
+ * "Network idle" readiness: the page is loaded, no XHR/fetch request (jQuery ajax included) is in flight and
+ * nothing finished loading for a quiet period.
+ * In-flight requests are counted by a tracker injected into the page, which wraps XMLHttpRequest.send and
+ * fetch. Requests that ended before the tracker was there (e.g. right after a navigation) are still seen
+ * through the Resource Timing entries, so the quiet period also holds for them
+ */
+final class NetworkIdle {
+    private static final String TRACKER =
+            "var tracker = window.__networkIdleTracker;"
+                    + "if (!tracker) {"
+                    + "  tracker = window.__networkIdleTracker = {inFlight: 0, lastChange: 0};"
+                    + "  var start = function () { tracker.inFlight++; tracker.lastChange = performance.now(); };"
+                    + "  var settle = function () { tracker.inFlight = Math.max(0, tracker.inFlight - 1); tracker.lastChange = performance.now(); };"
+                    + "  var send = XMLHttpRequest.prototype.send;"
+                    + "  XMLHttpRequest.prototype.send = function () {"
+                    + "    start();"
+                    + "    this.addEventListener('loadend', settle);"
+                    + "    try { return send.apply(this, arguments); } catch (e) { settle(); throw e; }"
+                    + "  };"
+                    + "  if (window.fetch) {"
+                    + "    var fetch = window.fetch;"
+                    + "    window.fetch = function () {"
+                    + "      start();"
+                    + "      try {"
+                    + "        return fetch.apply(this, arguments).then(function (response) { settle(); return response; },"
+                    + "            function (error) { settle(); throw error; });"
+                    + "      } catch (e) { settle(); throw e; }"
+                    + "    };"
+                    + "  }"
+                    + "}";
+
+    private static final String IS_IDLE = TRACKER
+            + "if (document.readyState !== 'complete') { return false; }"
+            + "if (window.jQuery && jQuery.active > 0) { return false; }"
+            + "if (tracker.inFlight > 0) { return false; }"
+            + "var last = tracker.lastChange, resources = performance.getEntriesByType('resource');"
+            + "for (var i = Math.max(0, resources.length - 50); i < resources.length; i++) {"
+            + "  last = Math.max(last, resources[i].responseEnd);"
+            + "}"
+            + "return performance.now() - last >= arguments[0];";
+
+    private NetworkIdle() {
+    }
+
+    /**
+     * Inject the request tracker into the current page; done again by every idle check after a navigation
+     * @param driver
+     */
+    static void track(WebDriver driver) {
+        ((JavascriptExecutor) driver).executeScript(TRACKER);
+    }
+
+    /**
+     * Condition: no request in flight and none finished during the last quietMillis
+     * @param quietMillis
+     * @return
+     */
+    static ExpectedCondition<Boolean> idleFor(long quietMillis) {
+        return driver -> (Boolean) ((JavascriptExecutor) driver).executeScript(IS_IDLE, quietMillis);
+    }
+}
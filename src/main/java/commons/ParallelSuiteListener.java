@@ -0,0 +1,30 @@
+package commons;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Switch the suite to parallel test methods when -Dthreads is greater than 1.
+ * Each worker thread owns its browser session (BaseTest) and report test (ExtentTestManager),
+ * so test methods of the same class can run side by side: mvn test -Dthreads=5
+ */
+public class ParallelSuiteListener implements IAlterSuiteListener {
+    private static final Log log = LogFactory.getLog(ParallelSuiteListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int threads = GlobalConstants.THREAD_COUNT;
+        if (threads <= 1) {
+            return;
+        }
+        for (XmlSuite suite : suites) {
+            suite.setParallel(XmlSuite.ParallelMode.METHODS);
+            suite.setThreadCount(threads);
+            log.info("Run suite '" + suite.getName() + "' with " + threads + " parallel methods");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package commons;
+
+import factoryEnvironment.DriverFactory;
+import factoryEnvironment.DriverSessionPool;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Start launching the browser of the next &lt;test&gt; of the suite while the current one is still running,
+ * so its first test method finds a warm session in DriverSessionPool.
+ * The session key comes from the same parameters BaseTest receives (browser, evnName, ipAddress, ...)
+ */
+public class SessionPrefetchListener implements ISuiteListener, ITestListener {
+    private static final Log log = LogFactory.getLog(SessionPrefetchListener.class);
+
+    @Override
+    public void onStart(ISuite suite) {
+        List<XmlTest> tests = suite.getXmlSuite().getTests();
+        if (!tests.isEmpty()) {
+            prefetch(tests.get(0));
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+    }
+
+    @Override
+    public void onStart(ITestContext context) {
+        List<XmlTest> tests = context.getSuite().getXmlSuite().getTests();
+        int next = tests.indexOf(context.getCurrentXmlTest()) + 1;
+        if (next > 0 && next < tests.size()) {
+            prefetch(tests.get(next));
+        }
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+    }
+
+    private void prefetch(XmlTest test) {
+        if (!GlobalConstants.SESSION_POOL_ENABLED) {
+            return;
+        }
+        Map<String, String> parameters = test.getAllParameters();
+        try {
+            DriverFactory factory = DriverFactory.forEnvironment(parameters.getOrDefault("evnName", "local"),
+                    parameters.getOrDefault("browser", "firefox"), parameters.getOrDefault("ipAddress", "localhost"),
+                    parameters.getOrDefault("portNumber", "4444"), parameters.getOrDefault("osName", "Windows"),
+                    parameters.getOrDefault("osVersion", "10"));
+            log.info("Prefetch " + factory.getSessionKey() + " for test '" + test.getName() + "'");
+            DriverSessionPool.getPool().prefetch(factory);
+        } catch (RuntimeException e) {
+            log.info("Cannot prefetch a session for test '" + test.getName() + "' - " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package commons;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time spent in fixed sleeps (BasePage.sleepInSecond), per test method and for the whole run.
+ * MethodListener opens and closes the per-test account around each test method, on the test's own thread,
+ * and flags tests where sleeping is most of the runtime
+ */
+public class SleepAccounting {
+    private static final ThreadLocal<long[]> currentTest = new ThreadLocal<>();
+    private static final LongAdder totalMillis = new LongAdder();
+
+    private SleepAccounting() {
+    }
+
+    /**
+     * Start counting the sleeps of the test method that runs on this thread
+     */
+    static void startTest() {
+        currentTest.set(new long[1]);
+    }
+
+    /**
+     * Stop counting for this thread
+     * @return milliseconds slept by the test method since startTest
+     */
+    static long stopTest() {
+        long[] slept = currentTest.get();
+        currentTest.remove();
+        return slept == null ? 0 : slept[0];
+    }
+
+    static void record(long millis) {
+        totalMillis.add(millis);
+        long[] slept = currentTest.get();
+        if (slept != null) {
+            slept[0] += millis;
+        }
+    }
+
+    public static long getTotalMillis() {
+        return totalMillis.sum();
+    }
+}
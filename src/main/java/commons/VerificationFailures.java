@@ -3,21 +3,19 @@ package commons;
 import org.testng.ITestResult;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-public class VerificationFailures extends HashMap<ITestResult, List<Throwable>> {
+public class VerificationFailures extends ConcurrentHashMap<ITestResult, List<Throwable>> {
     private static final long serialVersionUID = 1L;
-    private static VerificationFailures failures;
+    private static final VerificationFailures failures = new VerificationFailures();
 
     private VerificationFailures() {
         super();
     }
 
     public static VerificationFailures getFailures() {
-        if (failures == null) {
-            failures = new VerificationFailures();
-        }
         return failures;
     }
 
@@ -27,8 +25,6 @@ public class VerificationFailures extends HashMap<ITestResult, List<Throwable>>
     }
 
     public void addFailureForTest(ITestResult result, Throwable throwable) {
-        List<Throwable> exceptions = getFailuresForTest(result);
-        exceptions.add(throwable);
-        put(result, exceptions);
+        computeIfAbsent(result, key -> new CopyOnWriteArrayList<Throwable>()).add(throwable);
     }
 }
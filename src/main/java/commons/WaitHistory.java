@@ -0,0 +1,136 @@
+package commons;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * How long each wait (session key + condition + locator) took to be satisfied in recent runs, for AdaptiveWait.
+ * The last SAMPLES durations of every wait are kept, loaded from the history file when the class loads and
+ * written back by BaseTest at the end of the suite. The file is small and binary: per wait the key and
+ * up to SAMPLES durations of 2 bytes each. A missing or unreadable file only means starting without history
+ */
+public class WaitHistory {
+    private static final Log log = LogFactory.getLog(WaitHistory.class);
+    private static final int FILE_VERSION = 2;
+    static final int SAMPLES = 32;
+    static final int MIN_SAMPLES = 3;
+
+    private static final Map<String, Samples> waits = new ConcurrentHashMap<>();
+
+    static {
+        load(Paths.get(GlobalConstants.WAIT_HISTORY_FILE));
+    }
+
+    private WaitHistory() {
+    }
+
+    static void record(String key, long millis) {
+        waits.computeIfAbsent(key, k -> new Samples()).add(millis);
+    }
+
+    /**
+     * p50 and p95 time-to-satisfy of the wait in milliseconds
+     * @param key
+     * @return {p50, p95}, or null while there are fewer than MIN_SAMPLES durations
+     */
+    static long[] percentiles(String key) {
+        Samples samples = waits.get(key);
+        return samples == null ? null : samples.percentiles();
+    }
+
+    /**
+     * Write the history file, replacing the previous one in one move
+     */
+    public static synchronized void save() {
+        Path file = Paths.get(GlobalConstants.WAIT_HISTORY_FILE);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "wait-history", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FILE_VERSION);
+                out.writeInt(waits.size());
+                for (Map.Entry<String, Samples> wait : waits.entrySet()) {
+                    out.writeUTF(wait.getKey());
+                    wait.getValue().write(out);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.info("Cannot save wait history " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                waits.put(key, Samples.read(in));
+            }
+            log.debug("Loaded wait history of " + count + " waits from " + file);
+        } catch (IOException e) {
+            waits.clear();
+            log.info("Ignore unreadable wait history " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ring of the last SAMPLES durations, in milliseconds capped to 65535
+     */
+    private static final class Samples {
+        private final char[] millis = new char[SAMPLES];
+        private int size;
+        private int next;
+
+        synchronized void add(long duration) {
+            millis[next] = (char) Math.min(Character.MAX_VALUE, Math.max(0, duration));
+            next = (next + 1) % SAMPLES;
+            size = Math.min(SAMPLES, size + 1);
+        }
+
+        synchronized long[] percentiles() {
+            if (size < MIN_SAMPLES) {
+                return null;
+            }
+            char[] sorted = Arrays.copyOf(millis, size);
+            Arrays.sort(sorted);
+            return new long[]{sorted[(size - 1) / 2], sorted[(int) Math.ceil(size * 0.95) - 1]};
+        }
+
+        synchronized void write(DataOutputStream out) throws IOException {
+            out.writeByte(size);
+            for (int i = 0; i < size; i++) {
+                // oldest first, so reading them back in order restores the ring
+                out.writeChar(millis[(next - size + i + SAMPLES) % SAMPLES]);
+            }
+        }
+
+        static Samples read(DataInputStream in) throws IOException {
+            Samples samples = new Samples();
+            int size = in.readUnsignedByte();
+            for (int i = 0; i < size; i++) {
+                samples.add(in.readChar());
+            }
+            return samples;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 package factoryEnvironment;
 
 public enum BrowserList {
-    CHROME, FIREFOX, EDGE, OPERA, H_FIREFOX, H_CHROME;
+    CHROME, FIREFOX, EDGE, OPERA, H_FIREFOX, H_CHROME, HTTP;
 }
@@ -0,0 +1,225 @@
+package factoryEnvironment;
+
+import commons.GlobalConstants;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openqa.selenium.firefox.FirefoxProfile;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Browser profiles built once and cached on disk instead of being rebuilt for every session.
+ * Firefox: the profile (adblock extension, en-GB locale) is laid out once and cloned per session;
+ * extension archives are hard-linked, the few small pref files are copied. Firefox opens the clone
+ * in place through -profile, so Selenium no longer zips and base64-encodes the profile per launch.
+ * Chrome: the .crx is unpacked once and loaded with --load-extension
+ */
+public class BrowserProfileTemplate {
+    private static final Log log = LogFactory.getLog(BrowserProfileTemplate.class);
+    private static final File FIREFOX_ADBLOCK = new File(GlobalConstants.BROWSER_EXTENSION, "adblock_for_firefox-5.3.2.xpi");
+    private static final File CHROME_ADBLOCK = new File(GlobalConstants.BROWSER_EXTENSION, "adblock_chrome.crx");
+    private static final File TEMPLATE_ROOT = new File(GlobalConstants.PROFILE_CACHE, "templates");
+    private static final File SESSION_ROOT = new File(GlobalConstants.PROFILE_CACHE, "sessions");
+
+    /**
+     * Build the Firefox profile the way LocalFactory always did
+     * @return
+     */
+    public static FirefoxProfile newFirefoxProfile() {
+        FirefoxProfile profile = new FirefoxProfile();
+        profile.addExtension(FIREFOX_ADBLOCK);
+        profile.setPreference("intl.locale.requested", "en-GB");
+        profile.setPreference("intl.accept_languages", "en-GB");
+        return profile;
+    }
+
+    /**
+     * Copy of the cached Firefox profile template for one session. Delete it when the session is closed
+     * @return
+     */
+    public static File cloneFirefoxProfile() {
+        File template = firefoxTemplate();
+        File clone = new File(SESSION_ROOT, "firefox-" + UUID.randomUUID());
+        try {
+            cloneTree(template.toPath(), clone.toPath());
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot clone Firefox profile template " + template, e);
+        }
+        return clone;
+    }
+
+    public static void deleteClone(File clone) {
+        if (clone != null) {
+            FileUtils.deleteQuietly(clone);
+        }
+    }
+
+    private static synchronized File firefoxTemplate() {
+        File template = new File(TEMPLATE_ROOT, "firefox");
+        String stamp = fingerprint(FIREFOX_ADBLOCK) + "|intl=en-GB";
+        if (isCurrent(template, stamp)) {
+            return template;
+        }
+
+        long start = System.currentTimeMillis();
+        File layout = newFirefoxProfile().layoutOnDisk();
+        try {
+            replaceDirectory(layout, template, stamp);
+        } finally {
+            FileUtils.deleteQuietly(layout);
+        }
+        log.info("Built Firefox profile template " + template + " in " + (System.currentTimeMillis() - start) + "ms");
+        return template;
+    }
+
+    /**
+     * Directory of the unpacked Chrome adblock extension
+     * @return
+     */
+    public static synchronized File chromeExtensionDirectory() {
+        File template = new File(TEMPLATE_ROOT, "chrome-adblock");
+        String stamp = fingerprint(CHROME_ADBLOCK);
+        if (isCurrent(template, stamp)) {
+            return template;
+        }
+
+        File unpacked = new File(TEMPLATE_ROOT, "chrome-adblock-" + UUID.randomUUID());
+        try {
+            unpackCrx(CHROME_ADBLOCK, unpacked);
+            replaceDirectory(unpacked, template, stamp);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot unpack Chrome extension " + CHROME_ADBLOCK, e);
+        } finally {
+            FileUtils.deleteQuietly(unpacked);
+        }
+        log.info("Unpacked Chrome extension template " + template);
+        return template;
+    }
+
+    private static boolean isCurrent(File template, String stamp) {
+        File stampFile = stampFile(template);
+        try {
+            return stampFile.isFile() && new String(Files.readAllBytes(stampFile.toPath()), StandardCharsets.UTF_8).equals(stamp);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void replaceDirectory(File source, File target, String stamp) {
+        try {
+            FileUtils.deleteDirectory(target);
+            FileUtils.copyDirectory(source, target);
+            Files.write(stampFile(target).toPath(), stamp.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot write profile template " + target, e);
+        }
+    }
+
+    /**
+     * The stamp sits next to the template so it is never cloned into a profile or extension directory
+     */
+    private static File stampFile(File template) {
+        return new File(template.getParentFile(), template.getName() + ".stamp");
+    }
+
+    private static String fingerprint(File file) {
+        if (!file.isFile()) {
+            throw new RuntimeException("Browser extension not found: " + file);
+        }
+        return file.getName() + ":" + file.length() + ":" + file.lastModified();
+    }
+
+    private static void cloneTree(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path relative = source.relativize(file);
+                Path copy = target.resolve(relative);
+                if (relative.startsWith("extensions")) {
+                    // Extension archives are only read by Firefox, so sessions can share them
+                    try {
+                        Files.createLink(copy, file);
+                        return FileVisitResult.CONTINUE;
+                    } catch (IOException | UnsupportedOperationException e) {
+                        // different file store or no hard-link support: fall back to a copy
+                    }
+                }
+                Files.copy(file, copy, StandardCopyOption.COPY_ATTRIBUTES);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * A .crx file is a zip archive behind a "Cr24" header (version 2: key + signature, version 3: protobuf header)
+     */
+    private static void unpackCrx(File crx, File target) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(crx))) {
+            byte[] magic = new byte[4];
+            in.readFully(magic);
+            if (!"Cr24".equals(new String(magic, StandardCharsets.US_ASCII))) {
+                throw new IOException("Not a CRX file: " + crx);
+            }
+            int version = Integer.reverseBytes(in.readInt());
+            if (version == 2) {
+                int keyLength = Integer.reverseBytes(in.readInt());
+                int signatureLength = Integer.reverseBytes(in.readInt());
+                skipFully(in, (long) keyLength + signatureLength);
+            } else if (version == 3) {
+                skipFully(in, Integer.reverseBytes(in.readInt()));
+            } else {
+                throw new IOException("Unsupported CRX version " + version + ": " + crx);
+            }
+            unzip(in, target);
+        }
+    }
+
+    private static void skipFully(DataInputStream in, long bytes) throws IOException {
+        while (bytes > 0) {
+            int skipped = in.skipBytes((int) Math.min(bytes, Integer.MAX_VALUE));
+            if (skipped <= 0) {
+                throw new IOException("Truncated CRX header");
+            }
+            bytes -= skipped;
+        }
+    }
+
+    private static void unzip(InputStream in, File target) throws IOException {
+        Path root = target.toPath().toAbsolutePath().normalize();
+        ZipInputStream zip = new ZipInputStream(in);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            Path path = root.resolve(entry.getName()).normalize();
+            if (!path.startsWith(root)) {
+                throw new IOException("Zip entry outside target directory: " + entry.getName());
+            }
+            if (entry.isDirectory()) {
+                Files.createDirectories(path);
+            } else {
+                Files.createDirectories(path.getParent());
+                Files.copy(zip, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
@@ -8,7 +8,7 @@ import org.openqa.selenium.remote.RemoteWebDriver;
 import java.net.MalformedURLException;
 import java.net.URL;
 
-public class BrowserStackFactory {
+public class BrowserStackFactory implements DriverFactory {
     private WebDriver driver;
     private String browserName;
     private String osName;
@@ -20,7 +20,13 @@ public class BrowserStackFactory {
         this.osVersion = osVersion;
     }
 
-    public WebDriver createDriver() {
+    @Override
+    public String getSessionKey() {
+        return "browserStack:" + browserName.toLowerCase() + "/" + osName + "/" + osVersion;
+    }
+
+    @Override
+    public DriverSession createSession() {
         DesiredCapabilities caps = new DesiredCapabilities();
         caps.setCapability("os", osName);
         caps.setCapability("os_version", osVersion);
@@ -34,6 +40,6 @@ public class BrowserStackFactory {
         } catch (MalformedURLException e) {
             e.printStackTrace();
         }
-        return driver;
+        return new DriverSession(getSessionKey(), driver, null, null);
     }
 }
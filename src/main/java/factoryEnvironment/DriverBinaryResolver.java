@@ -0,0 +1,156 @@
+package factoryEnvironment;
+
+import commons.GlobalConstants;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.config.DriverManagerType;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.firefox.GeckoDriverService;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves each driver binary once per JVM. Resolved paths are kept in a manifest keyed by browser version,
+ * so later runs skip WebDriverManager entirely while the installed browser stays the same.
+ * With -DdriverOffline=true a missing manifest entry fails fast instead of going to the network
+ */
+public class DriverBinaryResolver {
+    private static final Log log = LogFactory.getLog(DriverBinaryResolver.class);
+    private static final File MANIFEST = new File(GlobalConstants.DRIVER_CACHE, "manifest.properties");
+    private static final Map<DriverManagerType, String> resolvedPaths = new ConcurrentHashMap<>();
+
+    /**
+     * Make sure the driver binary of the browser is available and exported to its Selenium system property
+     * @param driverType
+     * @return path of the driver binary
+     */
+    public static String setup(DriverManagerType driverType) {
+        return resolvedPaths.computeIfAbsent(driverType, DriverBinaryResolver::resolve);
+    }
+
+    private static String resolve(DriverManagerType driverType) {
+        String exportProperty = exportProperty(driverType);
+        String configuredPath = System.getProperty(exportProperty);
+        if (configuredPath != null && new File(configuredPath).canExecute()) {
+            return configuredPath;
+        }
+
+        WebDriverManager manager = WebDriverManager.getInstance(driverType);
+        String manifestKey = driverType.getNameLowerCase() + "." + detectBrowserVersion(manager);
+        String driverPath = loadManifest().getProperty(manifestKey);
+        if (driverPath != null && new File(driverPath).canExecute()) {
+            log.info("Use cached " + manifestKey + " driver " + driverPath);
+            System.setProperty(exportProperty, driverPath);
+            return driverPath;
+        }
+
+        if (GlobalConstants.DRIVER_OFFLINE) {
+            throw new IllegalStateException("No cached driver for " + manifestKey + " in " + MANIFEST
+                    + " and -DdriverOffline=true forbids downloading it. Run once online to fill the cache.");
+        }
+
+        manager.setup();
+        driverPath = manager.getDownloadedDriverPath();
+        System.setProperty(exportProperty, driverPath);
+        saveManifestEntry(manifestKey, driverPath);
+        log.info("Resolved " + manifestKey + " driver " + manager.getDownloadedDriverVersion() + " at " + driverPath);
+        return driverPath;
+    }
+
+    /**
+     * Browser version from "browser --version", or a size/date fingerprint of the browser binary
+     * when the browser cannot print its version. Chrome and Edge on Windows open a window instead of printing,
+     * so Windows always uses the fingerprint; elsewhere the process gets 10 seconds before it is killed
+     */
+    private static String detectBrowserVersion(WebDriverManager manager) {
+        Optional<Path> browserPath = manager.getBrowserPath();
+        if (!browserPath.isPresent()) {
+            return "unknown";
+        }
+        File browser = browserPath.get().toFile();
+        String fingerprint = "build-" + browser.length() + "-" + browser.lastModified();
+        if (System.getProperty("os.name", "").toLowerCase().startsWith("windows")) {
+            return fingerprint;
+        }
+        File output = null;
+        Process process = null;
+        try {
+            // Output goes to a file, a browser that keeps running cannot block a read on its stdout
+            output = File.createTempFile("browser-version", ".txt");
+            process = new ProcessBuilder(browser.getAbsolutePath(), "--version").redirectErrorStream(true)
+                    .redirectOutput(output).start();
+            if (process.waitFor(10, TimeUnit.SECONDS)) {
+                String version = new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8).trim();
+                if (version.matches("(?s).*\\d+(\\.\\d+)+.*")) {
+                    return version.replaceAll("(?s).*?(\\d+(\\.\\d+)+).*", "$1");
+                }
+            } else {
+                log.info("No version from " + browser + " after 10 seconds, use its fingerprint");
+            }
+        } catch (IOException e) {
+            log.info("Cannot read version of " + browser + " - " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (process != null) {
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+            }
+            if (output != null) {
+                output.delete();
+            }
+        }
+        return fingerprint;
+    }
+
+    private static String exportProperty(DriverManagerType driverType) {
+        switch (driverType) {
+            case CHROME:
+                return ChromeDriverService.CHROME_DRIVER_EXE_PROPERTY;
+            case FIREFOX:
+                return GeckoDriverService.GECKO_DRIVER_EXE_PROPERTY;
+            case EDGE:
+                return EdgeDriverService.EDGE_DRIVER_EXE_PROPERTY;
+            default:
+                throw new RuntimeException("Driver not supported: " + driverType);
+        }
+    }
+
+    private static synchronized Properties loadManifest() {
+        Properties manifest = new Properties();
+        if (MANIFEST.isFile()) {
+            try (InputStream in = new FileInputStream(MANIFEST)) {
+                manifest.load(in);
+            } catch (IOException e) {
+                log.info("Cannot read driver manifest " + MANIFEST + " - " + e.getMessage());
+            }
+        }
+        return manifest;
+    }
+
+    private static synchronized void saveManifestEntry(String key, String driverPath) {
+        Properties manifest = loadManifest();
+        manifest.setProperty(key, driverPath);
+        MANIFEST.getParentFile().mkdirs();
+        try (OutputStream out = new FileOutputStream(MANIFEST)) {
+            manifest.store(out, "Driver binaries resolved by WebDriverManager, keyed by browser and browser version");
+        } catch (IOException e) {
+            log.info("Cannot write driver manifest " + MANIFEST + " - " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package factoryEnvironment;
+
+public interface DriverFactory {
+
+    /**
+     * Factory for the evnName parameter of the suite (local, grid, browserStack)
+     * @return
+     */
+    static DriverFactory forEnvironment(String envName, String browserName, String ipAddress, String portNumber, String osName, String osVersion) {
+        switch (envName) {
+            case "browserStack":
+                return new BrowserStackFactory(browserName, osName, osVersion);
+            case "grid":
+                return new GridFactory(browserName, ipAddress, portNumber);
+            case "local":
+            default:
+                return new LocalFactory(browserName);
+        }
+    }
+
+    /**
+     * Key that identifies interchangeable sessions of this factory (same browser, same target)
+     * @return
+     */
+    String getSessionKey();
+
+    /**
+     * Launch a session, the only way to get a driver: factories that start a local driver binary attach it to the
+     * session, so closing the session also stops that process
+     * @return
+     */
+    DriverSession createSession();
+}
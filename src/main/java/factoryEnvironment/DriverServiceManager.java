@@ -0,0 +1,139 @@
+package factoryEnvironment;
+
+import commons.GlobalConstants;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Starts the local driver binaries (chromedriver, geckodriver, msedgedriver) and keeps finished ones
+ * running so the next session of the same browser skips the binary startup.
+ * A service serves one session at a time, which is the only mode geckodriver supports
+ */
+public class DriverServiceManager {
+    private static final Log log = LogFactory.getLog(DriverServiceManager.class);
+    private static final Map<Class<? extends DriverService>, Deque<DriverService>> idleServices = new ConcurrentHashMap<>();
+
+    /**
+     * Take an idle running service for the browser or start a new one
+     * @param browserList
+     * @return
+     */
+    public static DriverService acquire(BrowserList browserList) {
+        if (GlobalConstants.REUSE_DRIVER_SERVICE) {
+            Deque<DriverService> idle = idleServices.get(serviceType(browserList));
+            DriverService service;
+            while (idle != null && (service = idle.pollFirst()) != null) {
+                if (service.isRunning()) {
+                    return service;
+                }
+            }
+        }
+
+        DriverService service = createService(browserList);
+        try {
+            service.start();
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot start driver service for " + browserList, e);
+        }
+        return service;
+    }
+
+    /**
+     * Give back a service whose session has quit cleanly
+     * @param service
+     */
+    public static void release(DriverService service) {
+        if (GlobalConstants.REUSE_DRIVER_SERVICE && service.isRunning()) {
+            idleServices.computeIfAbsent(service.getClass(), type -> new ConcurrentLinkedDeque<>()).offerFirst(service);
+        } else {
+            service.stop();
+        }
+    }
+
+    /**
+     * Stop every idle service, called once the suite is finished
+     */
+    public static void stopAll() {
+        for (Deque<DriverService> idle : idleServices.values()) {
+            DriverService service;
+            while ((service = idle.pollFirst()) != null) {
+                service.stop();
+            }
+        }
+    }
+
+    /**
+     * Find the OS process of a started service by its --port argument among the children of this JVM
+     * @param service
+     * @return the process handle, or null when the platform does not expose process arguments
+     */
+    public static ProcessHandle findProcess(DriverService service) {
+        String portArgument = "--port=" + service.getUrl().getPort();
+        return ProcessHandle.current().descendants()
+                .filter(process -> process.info().arguments().map(args -> Arrays.asList(args).contains(portArgument)).orElse(false))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Force kill a driver process and everything it started (browser, renderers)
+     * @param process
+     */
+    public static void killProcessTree(ProcessHandle process) {
+        if (process == null) {
+            return;
+        }
+        List<ProcessHandle> tree = new ArrayList<>();
+        process.descendants().forEach(tree::add);
+        tree.add(process);
+        for (ProcessHandle handle : tree) {
+            if (handle.isAlive()) {
+                log.info("Kill driver process " + handle.pid() + " " + handle.info().command().orElse(""));
+                handle.destroyForcibly();
+            }
+        }
+    }
+
+    private static Class<? extends DriverService> serviceType(BrowserList browserList) {
+        switch (browserList) {
+            case FIREFOX:
+            case H_FIREFOX:
+                return GeckoDriverService.class;
+            case CHROME:
+            case H_CHROME:
+                return ChromeDriverService.class;
+            case EDGE:
+                return EdgeDriverService.class;
+            default:
+                throw new RuntimeException("Browser not supported: " + browserList);
+        }
+    }
+
+    private static DriverService createService(BrowserList browserList) {
+        switch (browserList) {
+            case FIREFOX:
+            case H_FIREFOX:
+                return GeckoDriverService.createDefaultService();
+            case CHROME:
+            case H_CHROME:
+                return ChromeDriverService.createDefaultService();
+            case EDGE:
+                return EdgeDriverService.createDefaultService();
+            default:
+                throw new RuntimeException("Browser not supported: " + browserList);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package factoryEnvironment;
+
+import commons.GlobalConstants;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A launched browser session together with the bookkeeping the pool needs to reuse it
+ */
+public class DriverSession {
+    private static final Log log = LogFactory.getLog(DriverSession.class);
+    private static final ExecutorService QUIT_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "session-quit");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Map<WebDriver, String> keysByDriver = new ConcurrentHashMap<>();
+
+    private final String key;
+    private final WebDriver driver;
+    private final DriverService driverService;
+    private final ProcessHandle driverProcess;
+    private final SessionHealth health;
+    private final long createdAt;
+    private volatile int usageCount;
+    private volatile long idleSince;
+    private File profileDirectory;
+
+    DriverSession(String key, WebDriver driver, DriverService driverService, ProcessHandle driverProcess) {
+        this.key = key;
+        this.driverService = driverService;
+        this.driverProcess = driverProcess;
+        this.health = new SessionHealth(driverProcess);
+        // A browser-less HttpDomDriver has no process and no remote latency to watch, so it is not wrapped
+        this.driver = driverProcess == null && driver instanceof HttpDomDriver ? driver : health.monitor(driver);
+        this.createdAt = System.currentTimeMillis();
+        keysByDriver.put(this.driver, key);
+    }
+
+    /**
+     * Session key (factory and browser) of a driver handed out by a session, e.g. to keep per-environment statistics
+     * @param driver
+     * @return the key, or "unknown" for a driver that does not come from a session
+     */
+    public static String keyOf(WebDriver driver) {
+        return keysByDriver.getOrDefault(driver, "unknown");
+    }
+
+    /**
+     * Launch a new session from the factory and apply the one-time window and timeout setup
+     * @param factory
+     * @return
+     */
+    public static DriverSession open(DriverFactory factory) {
+        DriverSession session = factory.createSession();
+        WebDriver driver = session.getDriver();
+        // with -DexplicitWaitsOnly=true BasePage waits explicitly, so no find ever blocks on its own
+        driver.manage().timeouts().implicitlyWait(GlobalConstants.EXPLICIT_WAITS_ONLY ? 0 : GlobalConstants.LONG_TIMEOUT, TimeUnit.SECONDS);
+        if (GlobalConstants.IN_BROWSER_WAITS || GlobalConstants.OBSERVER_WAITS) {
+            // the in-page waits give up after their own timeout, the script timeout is only the safety net
+            driver.manage().timeouts().setScriptTimeout(GlobalConstants.LONG_TIMEOUT + 10, TimeUnit.SECONDS);
+        }
+        driver.manage().window().maximize();
+        return session;
+    }
+
+    /**
+     * Quit the browser. The driver service of a local session is handed back for reuse when the quit was clean,
+     * otherwise (quit failed or took longer than teardown.timeout) only this session's process tree is killed
+     */
+    public void close() {
+        keysByDriver.remove(driver);
+        boolean quit = false;
+        Future<?> quitting = QUIT_EXECUTOR.submit(driver::quit);
+        try {
+            quitting.get(GlobalConstants.TEARDOWN_TIMEOUT, TimeUnit.SECONDS);
+            quit = true;
+        } catch (TimeoutException e) {
+            log.info("Quit " + this + " did not finish in " + GlobalConstants.TEARDOWN_TIMEOUT + "s, kill it");
+            quitting.cancel(true);
+        } catch (ExecutionException e) {
+            log.info("Quit " + this + " failed - " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            quitting.cancel(true);
+        }
+        if (driverService != null) {
+            if (quit) {
+                DriverServiceManager.release(driverService);
+            } else {
+                DriverServiceManager.killProcessTree(driverProcess);
+                driverService.stop();
+            }
+        }
+        BrowserProfileTemplate.deleteClone(profileDirectory);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public DriverService getDriverService() {
+        return driverService;
+    }
+
+    public ProcessHandle getDriverProcess() {
+        return driverProcess;
+    }
+
+    public SessionHealth getHealth() {
+        return health;
+    }
+
+    /**
+     * Per-session profile clone that is deleted together with the session
+     * @param profileDirectory
+     */
+    void setProfileDirectory(File profileDirectory) {
+        this.profileDirectory = profileDirectory;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getUsageCount() {
+        return usageCount;
+    }
+
+    int markUsed() {
+        return ++usageCount;
+    }
+
+    void markIdle() {
+        idleSince = System.currentTimeMillis();
+    }
+
+    long getIdleSince() {
+        return idleSince;
+    }
+
+    @Override
+    public String toString() {
+        return key + " #" + Integer.toHexString(System.identityHashCode(this)) + " (used " + usageCount + ")";
+    }
+}
@@ -0,0 +1,337 @@
+package factoryEnvironment;
+
+import commons.GlobalConstants;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps launched browser sessions alive between tests, keyed by factory and browser.
+ * Sessions are reset (windows, storage, cookies, url) before they are handed to the next test.
+ * Up to prefetchDepth sessions per key are launched in the background ahead of demand, and
+ * sessions left idle longer than idleTimeout are quit
+ */
+public class DriverSessionPool {
+    private static final Log log = LogFactory.getLog(DriverSessionPool.class);
+    private static final DriverSessionPool pool = new DriverSessionPool(GlobalConstants.SESSION_POOL_MIN_SIZE,
+            GlobalConstants.SESSION_POOL_MAX_SIZE, GlobalConstants.SESSION_POOL_MAX_REUSE,
+            GlobalConstants.SESSION_PREFETCH_DEPTH, GlobalConstants.SESSION_IDLE_TIMEOUT);
+
+    private final Map<String, KeyedSessions> sessionsByKey = new ConcurrentHashMap<>();
+    private final SessionMetrics metrics = new SessionMetrics();
+    private final ExecutorService launcher = Executors.newCachedThreadPool(daemonThreads("session-prefetch"));
+    private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(daemonThreads("session-reaper"));
+    private final int minSize;
+    private final int maxSize;
+    private final int maxReuse;
+    private final int prefetchDepth;
+    private final long idleTimeoutMillis;
+    private volatile boolean closed;
+
+    DriverSessionPool(int minSize, int maxSize, int maxReuse, int prefetchDepth, long idleTimeoutSeconds) {
+        this.minSize = Math.max(0, minSize);
+        this.maxSize = Math.max(1, maxSize);
+        this.maxReuse = Math.max(1, maxReuse);
+        this.prefetchDepth = Math.max(0, prefetchDepth);
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(idleTimeoutSeconds);
+        if (idleTimeoutMillis > 0) {
+            long period = Math.max(1000, idleTimeoutMillis / 2);
+            reaper.scheduleWithFixedDelay(this::retireIdleSessions, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static DriverSessionPool getPool() {
+        return pool;
+    }
+
+    public SessionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Take an idle session for the factory key, launching a new one when the pool is below its max size
+     * @param factory
+     * @return
+     */
+    public DriverSession borrow(DriverFactory factory) {
+        long start = System.nanoTime();
+        KeyedSessions sessions = sessionsFor(factory);
+        try {
+            DriverSession session = warmUp(sessions, factory);
+            if (session != null) {
+                metrics.recordMiss();
+                return session;
+            }
+
+            session = sessions.idle.pollFirst();
+            if (session != null) {
+                metrics.recordHit();
+                return session;
+            }
+
+            if (sessions.pending.get() == 0 && sessions.reserve(maxSize)) {
+                metrics.recordMiss();
+                return launch(sessions, factory);
+            }
+
+            // A prefetched session is on its way or the pool is full: wait for one to be parked.
+            // A pending launch is waited for up to the session creation timeout, a Grid or BrowserStack session
+            // can take a minute to allocate; when it fails pending drops to 0 and the borrower launches its own
+            metrics.recordWait();
+            long launchDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(GlobalConstants.SESSION_CREATE_TIMEOUT);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(GlobalConstants.LONG_TIMEOUT);
+            while (true) {
+                session = sessions.idle.pollFirst(500, TimeUnit.MILLISECONDS);
+                if (session != null) {
+                    return session;
+                }
+                if (sessions.pending.get() == 0 && sessions.reserve(maxSize)) {
+                    return launch(sessions, factory);
+                }
+                long now = System.nanoTime();
+                if (sessions.pending.get() > 0) {
+                    if (now >= launchDeadline) {
+                        throw new RuntimeException("No browser session available for " + factory.getSessionKey()
+                                + ", the pending launch did not finish in " + GlobalConstants.SESSION_CREATE_TIMEOUT + "s");
+                    }
+                    deadline = now + TimeUnit.SECONDS.toNanos(GlobalConstants.LONG_TIMEOUT);
+                } else if (now >= deadline) {
+                    throw new RuntimeException("No browser session available for " + factory.getSessionKey() + " after " + GlobalConstants.LONG_TIMEOUT + "s");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a browser session", e);
+        } finally {
+            metrics.recordBorrow(System.nanoTime() - start);
+            prefetch(factory);
+        }
+    }
+
+    /**
+     * Launch sessions in the background until prefetchDepth sessions of the factory key are idle or on their way
+     * @param factory
+     */
+    public void prefetch(DriverFactory factory) {
+        if (closed) {
+            return;
+        }
+        KeyedSessions sessions = sessionsFor(factory);
+        while (sessions.idle.size() + sessions.pending.get() < prefetchDepth && sessions.reserve(maxSize)) {
+            sessions.pending.incrementAndGet();
+            launcher.execute(() -> {
+                try {
+                    DriverSession session = launch(sessions, factory);
+                    metrics.recordPrefetched();
+                    if (closed) {
+                        retire(sessions, session);
+                    } else {
+                        park(sessions, session);
+                    }
+                } catch (RuntimeException e) {
+                    log.info("Prefetch of " + factory.getSessionKey() + " failed - " + e.getMessage());
+                } finally {
+                    sessions.pending.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Return a session after the test. It is reset and kept idle, or quit once it reached the reuse limit
+     * @param session
+     */
+    public void release(DriverSession session) {
+        KeyedSessions sessions = sessionsByKey.get(session.getKey());
+        if (sessions == null) {
+            session.close();
+            return;
+        }
+
+        if (closed) {
+            retire(sessions, session);
+            return;
+        }
+
+        SessionHealth.RecycleReason reason = session.getHealth().recycleReason(session.markUsed(), maxReuse);
+        if (reason != null) {
+            log.info("Recycle " + session + ": " + reason + " (" + session.getHealth() + " rssMb=" + session.getHealth().getBrowserRssMb() + ")");
+            metrics.recordRecycled(reason);
+            retire(sessions, session);
+            return;
+        }
+
+        try {
+            reset(session.getDriver());
+            park(sessions, session);
+        } catch (Exception e) {
+            log.info("Retire " + session + ": reset failed - " + e.getMessage());
+            retire(sessions, session);
+        }
+    }
+
+    /**
+     * Return a session from the test thread and do the reset or quit on SessionTeardown.
+     * Until it is parked the session counts as pending, so a borrower waits for it instead of launching a new browser
+     * @param session
+     */
+    public void releaseAsync(DriverSession session) {
+        KeyedSessions sessions = sessionsByKey.get(session.getKey());
+        if (sessions == null) {
+            SessionTeardown.getTeardown().submit(session, session::close);
+            return;
+        }
+        sessions.pending.incrementAndGet();
+        SessionTeardown.getTeardown().submit(session, () -> {
+            try {
+                release(session);
+            } finally {
+                sessions.pending.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Stop prefetching, quit every idle session and log the pool metrics
+     */
+    public void shutdown() {
+        closed = true;
+        reaper.shutdownNow();
+        launcher.shutdown();
+        try {
+            launcher.awaitTermination(GlobalConstants.LONG_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (KeyedSessions sessions : sessionsByKey.values()) {
+            List<DriverSession> idle = new ArrayList<>();
+            sessions.idle.drainTo(idle);
+            for (DriverSession session : idle) {
+                retire(sessions, session);
+            }
+        }
+        log.info("Session pool metrics: " + metrics.summary());
+    }
+
+    private KeyedSessions sessionsFor(DriverFactory factory) {
+        return sessionsByKey.computeIfAbsent(factory.getSessionKey(), key -> new KeyedSessions());
+    }
+
+    /**
+     * Launch sessions until minSize sessions of the key exist
+     * @return the first session launched, for the borrower, or null when the key was already warm
+     */
+    private DriverSession warmUp(KeyedSessions sessions, DriverFactory factory) {
+        DriverSession first = null;
+        try {
+            while (sessions.total.get() < minSize && sessions.reserve(Math.min(minSize, maxSize))) {
+                DriverSession session = launch(sessions, factory);
+                if (first == null) {
+                    first = session;
+                } else {
+                    park(sessions, session);
+                }
+            }
+        } catch (RuntimeException e) {
+            if (first == null) {
+                throw e;
+            }
+            log.info("Warm up of " + factory.getSessionKey() + " stopped - " + e.getMessage());
+        }
+        return first;
+    }
+
+    private DriverSession launch(KeyedSessions sessions, DriverFactory factory) {
+        try {
+            DriverSession session = DriverSession.open(factory);
+            metrics.recordCreated();
+            return session;
+        } catch (RuntimeException e) {
+            sessions.total.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void park(KeyedSessions sessions, DriverSession session) {
+        session.markIdle();
+        sessions.idle.offerFirst(session);
+    }
+
+    private void retire(KeyedSessions sessions, DriverSession session) {
+        sessions.total.decrementAndGet();
+        metrics.recordRetired();
+        session.close();
+    }
+
+    private void retireIdleSessions() {
+        long now = System.currentTimeMillis();
+        for (KeyedSessions sessions : sessionsByKey.values()) {
+            for (DriverSession session : sessions.idle) {
+                if (sessions.total.get() > minSize && now - session.getIdleSince() > idleTimeoutMillis && sessions.idle.remove(session)) {
+                    log.info("Retire " + session + ": idle for more than " + TimeUnit.MILLISECONDS.toSeconds(idleTimeoutMillis) + "s");
+                    retire(sessions, session);
+                }
+            }
+        }
+    }
+
+    private void reset(WebDriver driver) {
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        String keep = handles.get(0);
+        for (String handle : handles) {
+            if (!handle.equals(keep)) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+        }
+        driver.switchTo().window(keep);
+
+        try {
+            ((JavascriptExecutor) driver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+        } catch (Exception e) {
+            // about:blank and error pages have no storage
+        }
+        driver.manage().deleteAllCookies();
+        driver.get("about:blank");
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class KeyedSessions {
+        private final BlockingDeque<DriverSession> idle = new LinkedBlockingDeque<>();
+        private final AtomicInteger total = new AtomicInteger();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private boolean reserve(int limit) {
+            int current;
+            do {
+                current = total.get();
+                if (current >= limit) {
+                    return false;
+                }
+            } while (!total.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+}
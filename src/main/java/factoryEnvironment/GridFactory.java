@@ -1,7 +1,7 @@
 package factoryEnvironment;
 
 import commons.GlobalConstants;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.config.DriverManagerType;
 import org.openqa.selenium.Platform;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
@@ -15,7 +15,7 @@ import org.openqa.selenium.remote.RemoteWebDriver;
 import java.net.MalformedURLException;
 import java.net.URL;
 
-public class GridFactory {
+public class GridFactory implements DriverFactory {
     private WebDriver driver;
     private String browserName;
     private String ipAddress;
@@ -27,12 +27,18 @@ public class GridFactory {
         this.portNumber = portNumber;
     }
 
-    public WebDriver createDriver() {
+    @Override
+    public String getSessionKey() {
+        return "grid:" + browserName.toLowerCase() + "@" + ipAddress + ":" + portNumber;
+    }
+
+    @Override
+    public DriverSession createSession() {
         BrowserList browserList = BrowserList.valueOf(browserName.toUpperCase());
         DesiredCapabilities capability = null;
         switch (browserList) {
             case FIREFOX:
-                WebDriverManager.firefoxdriver().setup();
+                DriverBinaryResolver.setup(DriverManagerType.FIREFOX);
                 capability = DesiredCapabilities.firefox();
                 capability.setBrowserName("firefox");
                 capability.setPlatform(Platform.WINDOWS);
@@ -43,14 +49,14 @@ public class GridFactory {
                 fOptions.merge(capability);
                 break;
             case H_FIREFOX:
-                WebDriverManager.firefoxdriver().setup();
+                DriverBinaryResolver.setup(DriverManagerType.FIREFOX);
                 FirefoxOptions options = new FirefoxOptions();
                 options.addArguments("--headless");
                 options.addArguments("window-size=1920x1080");
                 driver = new FirefoxDriver(options);
                 break;
             case CHROME:
-                WebDriverManager.chromedriver().setup();
+                DriverBinaryResolver.setup(DriverManagerType.CHROME);
                 capability = DesiredCapabilities.chrome();
                 capability.setBrowserName("chrome");
                 capability.setPlatform(Platform.WINDOWS);
@@ -61,14 +67,14 @@ public class GridFactory {
                 cOptions.merge(capability);
                 break;
             case H_CHROME:
-                WebDriverManager.chromedriver().setup();
+                DriverBinaryResolver.setup(DriverManagerType.CHROME);
                 ChromeOptions optionChrome = new ChromeOptions();
                 optionChrome.addArguments("--headless");
                 optionChrome.addArguments("window-size=1920x1080");
                 driver = new ChromeDriver(optionChrome);
                 break;
             case EDGE:
-                WebDriverManager.edgedriver().setup();
+                DriverBinaryResolver.setup(DriverManagerType.EDGE);
                 capability = DesiredCapabilities.edge();
                 capability.setBrowserName("edge");
                 capability.setPlatform(Platform.WINDOWS);
@@ -85,6 +91,6 @@ public class GridFactory {
         } catch (MalformedURLException e) {
             e.printStackTrace();
         }
-        return driver;
+        return new DriverSession(getSessionKey(), driver, null, null);
     }
 }
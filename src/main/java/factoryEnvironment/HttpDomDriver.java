@@ -0,0 +1,387 @@
+package factoryEnvironment;
+
+import commons.GlobalConstants;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.logging.Logs;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Browser-less WebDriver for read-only checks of server-rendered pages (browser "http").
+ * Pages are fetched with java.net.http and parsed with jsoup, so BasePage's find, text, attribute, size and
+ * displayed helpers work in milliseconds without a browser process. There is no JavaScript engine, no layout
+ * and no user input: clicks, typing, scripts, screenshots, frames and alerts throw UnsupportedCommandException
+ */
+public class HttpDomDriver extends HttpDomSearchContext implements WebDriver, JavascriptExecutor, TakesScreenshot {
+    private static final String WINDOW_HANDLE = "http-dom";
+    private static final String BLANK = "about:blank";
+
+    private final CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+    private final HttpClient client = HttpClient.newBuilder()
+            .cookieHandler(cookies)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(GlobalConstants.LONG_TIMEOUT))
+            .build();
+    private final List<String> history = new ArrayList<>();
+    private int historyIndex = -1;
+    private Document document = Document.createShell(BLANK);
+    private String currentUrl = BLANK;
+
+    static UnsupportedCommandException unsupported(String command) {
+        return new UnsupportedCommandException(command + " is not available for browser 'http': it only reads the HTML "
+                + "returned by the server (no JavaScript, layout or user input). Run this test on a real browser.");
+    }
+
+    @Override
+    Element searchRoot() {
+        return document;
+    }
+
+    @Override
+    HttpDomDriver owner() {
+        return this;
+    }
+
+    boolean isCurrentDocument(Document candidate) {
+        return candidate == document;
+    }
+
+    @Override
+    public void get(String url) {
+        load(url);
+        history.subList(historyIndex + 1, history.size()).clear();
+        history.add(currentUrl);
+        historyIndex = history.size() - 1;
+    }
+
+    private void load(String url) {
+        if (BLANK.equals(url)) {
+            document = Document.createShell(BLANK);
+            currentUrl = BLANK;
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(GlobalConstants.LONG_TIMEOUT))
+                .header("Accept", "text/html,application/xhtml+xml")
+                .GET()
+                .build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            currentUrl = response.uri().toString();
+            document = Jsoup.parse(response.body(), currentUrl);
+        } catch (IOException e) {
+            throw new WebDriverException("Cannot load " + url + " - " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while loading " + url, e);
+        }
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        return document.title();
+    }
+
+    @Override
+    public String getPageSource() {
+        return document.outerHtml();
+    }
+
+    @Override
+    public void close() {
+        quit();
+    }
+
+    @Override
+    public void quit() {
+        document = Document.createShell(BLANK);
+        currentUrl = BLANK;
+        history.clear();
+        historyIndex = -1;
+        cookies.getCookieStore().removeAll();
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return Collections.singleton(WINDOW_HANDLE);
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return WINDOW_HANDLE;
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return new HttpTargetLocator();
+    }
+
+    @Override
+    public Navigation navigate() {
+        return new HttpNavigation();
+    }
+
+    @Override
+    public Options manage() {
+        return new HttpOptions();
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        throw unsupported("executeScript");
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        throw unsupported("executeAsyncScript");
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        throw unsupported("getScreenshotAs");
+    }
+
+    private URI currentUri() {
+        return URI.create(BLANK.equals(currentUrl) ? "http://localhost/" : currentUrl);
+    }
+
+    private class HttpNavigation implements Navigation {
+        @Override
+        public void back() {
+            if (historyIndex > 0) {
+                load(history.get(--historyIndex));
+            }
+        }
+
+        @Override
+        public void forward() {
+            if (historyIndex < history.size() - 1) {
+                load(history.get(++historyIndex));
+            }
+        }
+
+        @Override
+        public void to(String url) {
+            get(url);
+        }
+
+        @Override
+        public void to(URL url) {
+            get(url.toString());
+        }
+
+        @Override
+        public void refresh() {
+            load(currentUrl);
+        }
+    }
+
+    private class HttpTargetLocator implements TargetLocator {
+        @Override
+        public WebDriver frame(int index) {
+            throw unsupported("switchTo().frame");
+        }
+
+        @Override
+        public WebDriver frame(String nameOrId) {
+            throw unsupported("switchTo().frame");
+        }
+
+        @Override
+        public WebDriver frame(WebElement frameElement) {
+            throw unsupported("switchTo().frame");
+        }
+
+        @Override
+        public WebDriver parentFrame() {
+            return HttpDomDriver.this;
+        }
+
+        @Override
+        public WebDriver window(String nameOrHandle) {
+            if (!WINDOW_HANDLE.equals(nameOrHandle)) {
+                throw new NoSuchWindowException("Browser 'http' has a single window: " + WINDOW_HANDLE);
+            }
+            return HttpDomDriver.this;
+        }
+
+        @Override
+        public WebDriver defaultContent() {
+            return HttpDomDriver.this;
+        }
+
+        @Override
+        public WebElement activeElement() {
+            throw unsupported("switchTo().activeElement");
+        }
+
+        @Override
+        public Alert alert() {
+            throw unsupported("switchTo().alert");
+        }
+    }
+
+    private class HttpOptions implements Options {
+        @Override
+        public void addCookie(Cookie cookie) {
+            HttpCookie httpCookie = new HttpCookie(cookie.getName(), cookie.getValue());
+            httpCookie.setDomain(cookie.getDomain() != null ? cookie.getDomain() : currentUri().getHost());
+            httpCookie.setPath(cookie.getPath() != null ? cookie.getPath() : "/");
+            httpCookie.setSecure(cookie.isSecure());
+            httpCookie.setHttpOnly(cookie.isHttpOnly());
+            if (cookie.getExpiry() != null) {
+                httpCookie.setMaxAge(TimeUnit.MILLISECONDS.toSeconds(cookie.getExpiry().getTime() - System.currentTimeMillis()));
+            }
+            httpCookie.setVersion(0);
+            cookies.getCookieStore().add(currentUri(), httpCookie);
+        }
+
+        @Override
+        public void deleteCookieNamed(String name) {
+            for (HttpCookie httpCookie : cookies.getCookieStore().get(currentUri())) {
+                if (httpCookie.getName().equals(name)) {
+                    cookies.getCookieStore().remove(currentUri(), httpCookie);
+                }
+            }
+        }
+
+        @Override
+        public void deleteCookie(Cookie cookie) {
+            deleteCookieNamed(cookie.getName());
+        }
+
+        @Override
+        public void deleteAllCookies() {
+            cookies.getCookieStore().removeAll();
+        }
+
+        @Override
+        public Set<Cookie> getCookies() {
+            Set<Cookie> result = new LinkedHashSet<>();
+            for (HttpCookie httpCookie : cookies.getCookieStore().get(currentUri())) {
+                Date expiry = httpCookie.getMaxAge() < 0 ? null : new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(httpCookie.getMaxAge()));
+                result.add(new Cookie(httpCookie.getName(), httpCookie.getValue(), httpCookie.getDomain(), httpCookie.getPath(),
+                        expiry, httpCookie.getSecure(), httpCookie.isHttpOnly()));
+            }
+            return result;
+        }
+
+        @Override
+        public Cookie getCookieNamed(String name) {
+            for (Cookie cookie : getCookies()) {
+                if (cookie.getName().equals(name)) {
+                    return cookie;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Timeouts timeouts() {
+            return new HttpTimeouts();
+        }
+
+        @Override
+        public ImeHandler ime() {
+            throw unsupported("ime");
+        }
+
+        @Override
+        public Window window() {
+            return new HttpWindow();
+        }
+
+        @Override
+        public Logs logs() {
+            throw unsupported("logs");
+        }
+    }
+
+    /**
+     * The whole page is there once get() returns, so waits have nothing to wait for
+     */
+    private class HttpTimeouts implements Timeouts {
+        @Override
+        public Timeouts implicitlyWait(long time, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public Timeouts setScriptTimeout(long time, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public Timeouts pageLoadTimeout(long time, TimeUnit unit) {
+            return this;
+        }
+    }
+
+    /**
+     * There is no window: maximize and fullscreen are accepted so the common session setup still works
+     */
+    private class HttpWindow implements Window {
+        @Override
+        public void setSize(Dimension targetSize) {
+            throw unsupported("window().setSize");
+        }
+
+        @Override
+        public void setPosition(Point targetPosition) {
+            throw unsupported("window().setPosition");
+        }
+
+        @Override
+        public Dimension getSize() {
+            throw unsupported("window().getSize");
+        }
+
+        @Override
+        public Point getPosition() {
+            throw unsupported("window().getPosition");
+        }
+
+        @Override
+        public void maximize() {
+        }
+
+        @Override
+        public void fullscreen() {
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package factoryEnvironment;
+
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Read-only element of the HTTP mode. Text, attributes and state come from the parsed HTML;
+ * anything that needs layout, CSS or interaction throws UnsupportedCommandException
+ */
+public class HttpDomElement extends HttpDomSearchContext implements WebElement, WrapsDriver {
+    private static final List<String> BOOLEAN_ATTRIBUTES = Arrays.asList("checked", "selected", "disabled", "readonly",
+            "required", "multiple", "hidden", "autofocus");
+    private static final List<String> URL_ATTRIBUTES = Arrays.asList("href", "src", "action");
+
+    private final HttpDomDriver driver;
+    private final Element element;
+
+    HttpDomElement(HttpDomDriver driver, Element element) {
+        this.driver = driver;
+        this.element = element;
+    }
+
+    @Override
+    Element searchRoot() {
+        return attached();
+    }
+
+    @Override
+    HttpDomDriver owner() {
+        return driver;
+    }
+
+    @Override
+    public WebDriver getWrappedDriver() {
+        return driver;
+    }
+
+    @Override
+    public String getTagName() {
+        return attached().tagName();
+    }
+
+    @Override
+    public String getText() {
+        return isDisplayed() ? attached().text().trim() : "";
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        Element node = attached();
+        String key = name.toLowerCase(Locale.ROOT);
+        switch (key) {
+            case "textcontent":
+            case "innertext":
+                return node.text();
+            case "innerhtml":
+                return node.html();
+            case "outerhtml":
+                return node.outerHtml();
+            case "value":
+                if (node.is("textarea")) {
+                    return node.wholeText();
+                }
+                if (node.is("option") && !node.hasAttr("value")) {
+                    return node.text();
+                }
+                break;
+            default:
+                break;
+        }
+        if (!node.hasAttr(key)) {
+            return null;
+        }
+        if (BOOLEAN_ATTRIBUTES.contains(key)) {
+            return "true";
+        }
+        if (URL_ATTRIBUTES.contains(key)) {
+            return node.absUrl(key);
+        }
+        return node.attr(key);
+    }
+
+    @Override
+    public boolean isSelected() {
+        return attached().hasAttr("checked") || attached().hasAttr("selected");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !attached().hasAttr("disabled");
+    }
+
+    /**
+     * Best effort without a layout engine: hidden attribute, hidden inputs, non-rendered tags
+     * and inline display:none / visibility:hidden on the element or one of its ancestors
+     * @return
+     */
+    @Override
+    public boolean isDisplayed() {
+        Element node = attached();
+        if (node.is("input[type=hidden]")) {
+            return false;
+        }
+        for (Element current = node; current != null; current = current.parent()) {
+            if (current.is("head, script, style, template, noscript") || current.hasAttr("hidden")) {
+                return false;
+            }
+            String style = current.attr("style").replace(" ", "").toLowerCase(Locale.ROOT);
+            if (style.contains("display:none") || style.contains("visibility:hidden")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void click() {
+        throw HttpDomDriver.unsupported("click");
+    }
+
+    @Override
+    public void submit() {
+        throw HttpDomDriver.unsupported("submit");
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        throw HttpDomDriver.unsupported("sendKeys");
+    }
+
+    @Override
+    public void clear() {
+        throw HttpDomDriver.unsupported("clear");
+    }
+
+    @Override
+    public Point getLocation() {
+        throw HttpDomDriver.unsupported("getLocation");
+    }
+
+    @Override
+    public Dimension getSize() {
+        throw HttpDomDriver.unsupported("getSize");
+    }
+
+    @Override
+    public Rectangle getRect() {
+        throw HttpDomDriver.unsupported("getRect");
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        throw HttpDomDriver.unsupported("getCssValue");
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        throw HttpDomDriver.unsupported("getScreenshotAs");
+    }
+
+    private Element attached() {
+        if (!driver.isCurrentDocument(element.ownerDocument())) {
+            throw new StaleElementReferenceException("Element belongs to a page that is no longer loaded: " + element.cssSelector());
+        }
+        return element;
+    }
+
+    @Override
+    public String toString() {
+        return "[HttpDomElement " + element.cssSelector() + "]";
+    }
+}
@@ -0,0 +1,152 @@
+package factoryEnvironment;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.FindsByClassName;
+import org.openqa.selenium.internal.FindsByCssSelector;
+import org.openqa.selenium.internal.FindsById;
+import org.openqa.selenium.internal.FindsByLinkText;
+import org.openqa.selenium.internal.FindsByName;
+import org.openqa.selenium.internal.FindsByTagName;
+import org.openqa.selenium.internal.FindsByXPath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Element lookup of the HTTP mode. Selenium's By classes call back into the FindsBy* interfaces,
+ * which are answered from the parsed jsoup document (XPath 1.0 and CSS selectors)
+ */
+abstract class HttpDomSearchContext implements SearchContext, FindsByXPath, FindsByCssSelector, FindsById,
+        FindsByClassName, FindsByName, FindsByTagName, FindsByLinkText {
+
+    /**
+     * Root the lookup starts from: the document for the driver, the element itself for an element
+     * @return
+     */
+    abstract Element searchRoot();
+
+    abstract HttpDomDriver owner();
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return by.findElements(this);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return by.findElement(this);
+    }
+
+    @Override
+    public List<WebElement> findElementsByXPath(String using) {
+        return wrap(searchRoot().selectXpath(using));
+    }
+
+    @Override
+    public WebElement findElementByXPath(String using) {
+        return first(findElementsByXPath(using), "xpath", using);
+    }
+
+    @Override
+    public List<WebElement> findElementsByCssSelector(String using) {
+        return wrap(searchRoot().select(using));
+    }
+
+    @Override
+    public WebElement findElementByCssSelector(String using) {
+        return first(findElementsByCssSelector(using), "css selector", using);
+    }
+
+    @Override
+    public List<WebElement> findElementsById(String using) {
+        return wrap(searchRoot().getElementsByAttributeValue("id", using));
+    }
+
+    @Override
+    public WebElement findElementById(String using) {
+        return first(findElementsById(using), "id", using);
+    }
+
+    @Override
+    public List<WebElement> findElementsByClassName(String using) {
+        return wrap(searchRoot().getElementsByClass(using));
+    }
+
+    @Override
+    public WebElement findElementByClassName(String using) {
+        return first(findElementsByClassName(using), "class name", using);
+    }
+
+    @Override
+    public List<WebElement> findElementsByName(String using) {
+        return wrap(searchRoot().getElementsByAttributeValue("name", using));
+    }
+
+    @Override
+    public WebElement findElementByName(String using) {
+        return first(findElementsByName(using), "name", using);
+    }
+
+    @Override
+    public List<WebElement> findElementsByTagName(String using) {
+        return wrap(searchRoot().getElementsByTag(using));
+    }
+
+    @Override
+    public WebElement findElementByTagName(String using) {
+        return first(findElementsByTagName(using), "tag name", using);
+    }
+
+    @Override
+    public List<WebElement> findElementsByLinkText(String using) {
+        return findLinks(using, false);
+    }
+
+    @Override
+    public WebElement findElementByLinkText(String using) {
+        return first(findElementsByLinkText(using), "link text", using);
+    }
+
+    @Override
+    public List<WebElement> findElementsByPartialLinkText(String using) {
+        return findLinks(using, true);
+    }
+
+    @Override
+    public WebElement findElementByPartialLinkText(String using) {
+        return first(findElementsByPartialLinkText(using), "partial link text", using);
+    }
+
+    private List<WebElement> findLinks(String text, boolean partial) {
+        List<WebElement> links = new ArrayList<>();
+        for (Element link : searchRoot().select("a[href]")) {
+            String linkText = link.text().trim();
+            if (partial ? linkText.contains(text) : linkText.equals(text)) {
+                links.add(new HttpDomElement(owner(), link));
+            }
+        }
+        return links;
+    }
+
+    private List<WebElement> wrap(Elements elements) {
+        List<WebElement> wrapped = new ArrayList<>(elements.size());
+        for (Element element : elements) {
+            if (element != searchRoot()) {
+                wrapped.add(new HttpDomElement(owner(), element));
+            }
+        }
+        return wrapped;
+    }
+
+    private static WebElement first(List<WebElement> elements, String how, String using) {
+        if (elements.isEmpty()) {
+            throw new NoSuchElementException("Unable to locate element: {\"method\":\"" + how + "\",\"selector\":\"" + using + "\"}");
+        }
+        return elements.get(0);
+    }
+}
@@ -1,71 +1,100 @@
 package factoryEnvironment;
 
 import commons.GlobalConstants;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.config.DriverManagerType;
+import org.openqa.selenium.MutableCapabilities;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
-import org.openqa.selenium.firefox.FirefoxProfile;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverService;
 
 import java.io.File;
 
-public class LocalFactory {
-    private WebDriver driver;
+public class LocalFactory implements DriverFactory {
     private String browserName;
 
     public LocalFactory(String browserName) {
         this.browserName = browserName;
     }
 
-    public WebDriver createDriver() {
+    @Override
+    public String getSessionKey() {
+        return "local:" + browserName.toLowerCase();
+    }
+
+    @Override
+    public DriverSession createSession() {
         BrowserList browserList = BrowserList.valueOf(browserName.toUpperCase());
+        if (browserList == BrowserList.HTTP) {
+            // No browser process and no driver service, the page is read over plain HTTP
+            return new DriverSession(getSessionKey(), new HttpDomDriver(), null, null);
+        }
+
+        MutableCapabilities options;
+        File profileDirectory = null;
         switch (browserList) {
             case FIREFOX:
-                WebDriverManager.firefoxdriver().setup();
+                DriverBinaryResolver.setup(DriverManagerType.FIREFOX);
                 System.setProperty(FirefoxDriver.SystemProperty.DRIVER_USE_MARIONETTE, "true");
                 System.setProperty(FirefoxDriver.SystemProperty.BROWSER_LOGFILE, GlobalConstants.PROJECT_PATH + "\\browserLogs\\FirefoxLog.log");
-                FirefoxProfile profile = new FirefoxProfile();
-                File adBlock = new File(GlobalConstants.PROJECT_PATH + "\\browserExtension\\adblock_for_firefox-5.3.2.xpi");
-                profile.addExtension(adBlock);
-                profile.setPreference("intl.locale.requested","en-GB");
-                profile.setPreference("intl.accept_languages", "en-GB");
-                FirefoxOptions options = new FirefoxOptions();
-                options.setProfile(profile);
-                driver = new FirefoxDriver(options);
+                FirefoxOptions fOptions = new FirefoxOptions();
+                if (GlobalConstants.PROFILE_TEMPLATES) {
+                    profileDirectory = BrowserProfileTemplate.cloneFirefoxProfile();
+                    fOptions.addArguments("-profile", profileDirectory.getAbsolutePath());
+                } else {
+                    fOptions.setProfile(BrowserProfileTemplate.newFirefoxProfile());
+                }
+                options = fOptions;
                 break;
             case H_FIREFOX:
-                WebDriverManager.firefoxdriver().setup();
+                DriverBinaryResolver.setup(DriverManagerType.FIREFOX);
                 FirefoxOptions hFOptions = new FirefoxOptions();
                 hFOptions.addArguments("--headless");
                 hFOptions.addArguments("window-size=1920x1080");
-                driver = new FirefoxDriver(hFOptions);
+                options = hFOptions;
                 break;
             case CHROME:
-                WebDriverManager.chromedriver().setup();
+                DriverBinaryResolver.setup(DriverManagerType.CHROME);
                 System.setProperty("webdriver.chrome.args", "--disable-logging");
                 System.setProperty("webdriver.chrome.silentOutput", "true");
-                File file = new File(GlobalConstants.PROJECT_PATH + "\\browserExtension\\adblock_chrome.crx");
                 ChromeOptions cOptions = new ChromeOptions();
-                cOptions.addExtensions(file);
-                driver = new ChromeDriver(cOptions);
+                if (GlobalConstants.PROFILE_TEMPLATES) {
+                    cOptions.addArguments("--load-extension=" + BrowserProfileTemplate.chromeExtensionDirectory().getAbsolutePath());
+                } else {
+                    cOptions.addExtensions(new File(GlobalConstants.BROWSER_EXTENSION + "adblock_chrome.crx"));
+                }
+                options = cOptions;
                 break;
             case H_CHROME:
-                WebDriverManager.chromedriver().setup();
+                DriverBinaryResolver.setup(DriverManagerType.CHROME);
                 ChromeOptions optionChrome = new ChromeOptions();
                 optionChrome.addArguments("--headless");
                 optionChrome.addArguments("window-size=1920x1080");
-                driver = new ChromeDriver(optionChrome);
+                options = optionChrome;
                 break;
             case EDGE:
-                WebDriverManager.edgedriver().setup();
-                driver = new EdgeDriver();
+                DriverBinaryResolver.setup(DriverManagerType.EDGE);
+                options = new EdgeOptions();
                 break;
             default:
                 throw new RuntimeException("Browser not supported: " + browserName);
         }
-        return driver;
+
+        // The session talks to its own driver service, so quit() leaves the binary running for reuse
+        DriverService service = DriverServiceManager.acquire(browserList);
+        try {
+            WebDriver driver = new RemoteWebDriver(service.getUrl(), options);
+            DriverSession session = new DriverSession(getSessionKey(), driver, service, DriverServiceManager.findProcess(service));
+            session.setProfileDirectory(profileDirectory);
+            return session;
+        } catch (RuntimeException e) {
+            BrowserProfileTemplate.deleteClone(profileDirectory);
+            DriverServiceManager.killProcessTree(DriverServiceManager.findProcess(service));
+            service.stop();
+            throw e;
+        }
     }
 }
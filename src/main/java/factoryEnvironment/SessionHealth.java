@@ -0,0 +1,185 @@
+package factoryEnvironment;
+
+import commons.GlobalConstants;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.AbstractWebDriverEventListener;
+import org.openqa.selenium.support.events.EventFiringWebDriver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Health of one browser session: command latency compared with the first commands of the session,
+ * and the resident memory of the browser processes (local sessions on Linux, read from /proc).
+ * Find, click and navigation commands are left out because they include implicit waits and page loads (a click on
+ * a link loads the next page), and so are async scripts, which wait inside the page for up to the long timeout
+ */
+public class SessionHealth {
+    private static final int BASELINE_SAMPLES = 20;
+    private static final double SMOOTHING = 0.1;
+    private static final long MIN_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    public enum RecycleReason {
+        REUSE_LIMIT, MEMORY, LATENCY
+    }
+
+    private final ProcessHandle driverProcess;
+    private long baselineNanos;
+    private int samples;
+    private volatile double averageNanos;
+    private long commandStart;
+    private boolean asyncScript;
+
+    SessionHealth(ProcessHandle driverProcess) {
+        this.driverProcess = driverProcess;
+    }
+
+    /**
+     * Wrap the driver so every type, getText and synchronous script is timed
+     * @param driver
+     * @return
+     */
+    WebDriver monitor(WebDriver driver) {
+        return new EventFiringWebDriver(driver) {
+            @Override
+            public Object executeAsyncScript(String script, Object... args) {
+                // The script events fire for async scripts too, the flag keeps them out of the samples
+                asyncScript = true;
+                try {
+                    return super.executeAsyncScript(script, args);
+                } finally {
+                    asyncScript = false;
+                }
+            }
+        }.register(new LatencyListener());
+    }
+
+    /**
+     * Reason to quit the session instead of handing it to the next test, or null when it is healthy
+     * @param usageCount
+     * @param maxReuse
+     * @return
+     */
+    RecycleReason recycleReason(int usageCount, int maxReuse) {
+        if (usageCount >= maxReuse) {
+            return RecycleReason.REUSE_LIMIT;
+        }
+        if (GlobalConstants.SESSION_MAX_RSS_MB > 0 && getBrowserRssMb() > GlobalConstants.SESSION_MAX_RSS_MB) {
+            return RecycleReason.MEMORY;
+        }
+        if (samples > BASELINE_SAMPLES && averageNanos > MIN_LATENCY_NANOS
+                && averageNanos > baselineNanos * GlobalConstants.SESSION_LATENCY_FACTOR) {
+            return RecycleReason.LATENCY;
+        }
+        return null;
+    }
+
+    public long getAverageLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis((long) averageNanos);
+    }
+
+    public long getBaselineLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(baselineNanos);
+    }
+
+    /**
+     * Resident memory of the driver process and everything it started, 0 when it cannot be read
+     * @return
+     */
+    public long getBrowserRssMb() {
+        if (driverProcess == null) {
+            return 0;
+        }
+        List<ProcessHandle> tree = new ArrayList<>();
+        tree.add(driverProcess);
+        driverProcess.descendants().forEach(tree::add);
+        long rssKb = 0;
+        for (ProcessHandle process : tree) {
+            rssKb += readRssKb(process.pid());
+        }
+        return rssKb / 1024;
+    }
+
+    private static long readRssKb(long pid) {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        if (!Files.isReadable(status)) {
+            return 0;
+        }
+        try {
+            for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // the process exited while it was read
+        }
+        return 0;
+    }
+
+    private void commandStarted() {
+        commandStart = System.nanoTime();
+    }
+
+    private void commandFinished() {
+        long nanos = System.nanoTime() - commandStart;
+        samples++;
+        if (samples <= BASELINE_SAMPLES) {
+            baselineNanos += (nanos - baselineNanos) / samples;
+            averageNanos = baselineNanos;
+        } else {
+            averageNanos += (nanos - averageNanos) * SMOOTHING;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "commands=" + samples + " avgMs=" + getAverageLatencyMillis() + " baselineMs=" + getBaselineLatencyMillis();
+    }
+
+    /**
+     * A session is used by one test thread at a time, so before/after pairs never interleave
+     */
+    private class LatencyListener extends AbstractWebDriverEventListener {
+        @Override
+        public void beforeChangeValueOf(WebElement element, WebDriver driver, CharSequence[] keysToSend) {
+            commandStarted();
+        }
+
+        @Override
+        public void afterChangeValueOf(WebElement element, WebDriver driver, CharSequence[] keysToSend) {
+            commandFinished();
+        }
+
+        @Override
+        public void beforeGetText(WebElement element, WebDriver driver) {
+            commandStarted();
+        }
+
+        @Override
+        public void afterGetText(WebElement element, WebDriver driver, String text) {
+            commandFinished();
+        }
+
+        @Override
+        public void beforeScript(String script, WebDriver driver) {
+            if (!asyncScript) {
+                commandStarted();
+            }
+        }
+
+        @Override
+        public void afterScript(String script, WebDriver driver) {
+            if (!asyncScript) {
+                commandFinished();
+            }
+        }
+    }
+}
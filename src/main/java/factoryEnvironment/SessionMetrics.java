@@ -0,0 +1,129 @@
+package factoryEnvironment;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Suite-wide counters for browser session usage
+ */
+public class SessionMetrics {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder prefetched = new LongAdder();
+    private final LongAdder retired = new LongAdder();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowNanos = new LongAdder();
+    private final LongAccumulator maxBorrowNanos = new LongAccumulator(Math::max, 0);
+    private final Map<SessionHealth.RecycleReason, LongAdder> recycled = new ConcurrentHashMap<>();
+    private final LongAdder teardownCount = new LongAdder();
+    private final LongAdder teardownNanos = new LongAdder();
+    private final LongAccumulator maxTeardownNanos = new LongAccumulator(Math::max, 0);
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordWait() {
+        waits.increment();
+    }
+
+    void recordCreated() {
+        created.increment();
+    }
+
+    void recordPrefetched() {
+        prefetched.increment();
+    }
+
+    void recordRetired() {
+        retired.increment();
+    }
+
+    void recordBorrow(long nanos) {
+        borrowCount.increment();
+        borrowNanos.add(nanos);
+        maxBorrowNanos.accumulate(nanos);
+    }
+
+    void recordRecycled(SessionHealth.RecycleReason reason) {
+        recycled.computeIfAbsent(reason, key -> new LongAdder()).increment();
+    }
+
+    void recordTeardown(long nanos) {
+        teardownCount.increment();
+        teardownNanos.add(nanos);
+        maxTeardownNanos.accumulate(nanos);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getWaits() {
+        return waits.sum();
+    }
+
+    public long getCreated() {
+        return created.sum();
+    }
+
+    public long getPrefetched() {
+        return prefetched.sum();
+    }
+
+    public long getRetired() {
+        return retired.sum();
+    }
+
+    public long getRecycled(SessionHealth.RecycleReason reason) {
+        LongAdder count = recycled.get(reason);
+        return count == null ? 0 : count.sum();
+    }
+
+    public long getAverageBorrowMillis() {
+        long count = borrowCount.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(borrowNanos.sum() / count);
+    }
+
+    public long getMaxBorrowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxBorrowNanos.get());
+    }
+
+    public long getAverageTeardownMillis() {
+        long count = teardownCount.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(teardownNanos.sum() / count);
+    }
+
+    public long getMaxTeardownMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxTeardownNanos.get());
+    }
+
+    public String summary() {
+        return "borrows=" + borrowCount.sum()
+                + " hits=" + getHits()
+                + " misses=" + getMisses()
+                + " waits=" + getWaits()
+                + " created=" + getCreated()
+                + " prefetched=" + getPrefetched()
+                + " retired=" + getRetired()
+                + " recycled=" + recycled
+                + " avgBorrowMs=" + getAverageBorrowMillis()
+                + " maxBorrowMs=" + getMaxBorrowMillis()
+                + " teardowns=" + teardownCount.sum()
+                + " avgTeardownMs=" + getAverageTeardownMillis()
+                + " maxTeardownMs=" + getMaxTeardownMillis();
+    }
+}
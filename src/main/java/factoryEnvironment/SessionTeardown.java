@@ -0,0 +1,92 @@
+package factoryEnvironment;
+
+import commons.GlobalConstants;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs session teardown (reset and park, or quit) off the test thread so the next test can start right away.
+ * The queue is bounded: when every worker is busy and the queue is full the test thread runs the teardown itself,
+ * which keeps the number of browsers closing at the same time under control.
+ * Teardowns still running at the end of the suite are drained before the pool shuts down
+ */
+public class SessionTeardown {
+    private static final Log log = LogFactory.getLog(SessionTeardown.class);
+    private static final SessionTeardown teardown = new SessionTeardown(GlobalConstants.TEARDOWN_THREADS,
+            DriverSessionPool.getPool().getMetrics());
+
+    private final ThreadPoolExecutor executor;
+    private final Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+    private final SessionMetrics metrics;
+
+    SessionTeardown(int threads, SessionMetrics metrics) {
+        int size = Math.max(1, threads);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(size * 2), runnable -> {
+            Thread thread = new Thread(runnable, "session-teardown-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.metrics = metrics;
+    }
+
+    public static SessionTeardown getTeardown() {
+        return teardown;
+    }
+
+    /**
+     * Run the teardown in the background, or right away when asyncTeardown is disabled
+     * @param session
+     * @param action
+     */
+    public void submit(DriverSession session, Runnable action) {
+        Runnable timed = () -> {
+            long start = System.nanoTime();
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.info("Teardown of " + session + " failed - " + e.getMessage());
+            } finally {
+                metrics.recordTeardown(System.nanoTime() - start);
+            }
+        };
+        if (!GlobalConstants.ASYNC_TEARDOWN) {
+            timed.run();
+            return;
+        }
+        CompletableFuture<Void> future = CompletableFuture.runAsync(timed, executor);
+        inFlight.add(future);
+        future.whenComplete((result, error) -> inFlight.remove(future));
+    }
+
+    /**
+     * Wait for the teardowns submitted so far, called once the suite is finished
+     */
+    public void drain() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(GlobalConstants.TEARDOWN_TIMEOUT + GlobalConstants.LONG_TIMEOUT);
+        for (CompletableFuture<Void> future : inFlight) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                log.info("Teardown still running at suite end, " + inFlight.size() + " left");
+                break;
+            } catch (ExecutionException e) {
+                // already logged by the teardown itself
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package locatorGenerator;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate a typed locator class from the "type=value" String constants of a pageUIs class.
+ * HomePageUI gives HomePageLocators: constants without %s become a pre-parsed Locator,
+ * constants with one, two or three %s become Locator1/2/3 whose format(...) takes exactly that many values.
+ * A wrong locator type, an unsupported placeholder or an invalid xpath fails the build
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateLocators {
+}
@@ -0,0 +1,150 @@
+package locatorGenerator;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes the XxxLocators class of every pageUIs class annotated with @GenerateLocators.
+ * Runs in the main compile; the pom compiles this package first, on its own, so the processor exists by then
+ */
+@SupportedAnnotationTypes("locatorGenerator.GenerateLocators")
+public class LocatorProcessor extends AbstractProcessor {
+    private static final String[][] LOCATOR_TYPES = {{"id=", "ID"}, {"class=", "CLASS"}, {"name=", "NAME"}, {"css=", "CSS"}, {"xpath=", "XPATH"}};
+    private static final int MAX_ARITY = 3;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateLocators.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                generate((TypeElement) element);
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement uiClass) {
+        String packageName = ((PackageElement) uiClass.getEnclosingElement()).getQualifiedName().toString();
+        String uiName = uiClass.getSimpleName().toString();
+        String className = (uiName.endsWith("UI") ? uiName.substring(0, uiName.length() - 2) : uiName) + "Locators";
+
+        StringBuilder fields = new StringBuilder();
+        Set<String> imports = new TreeSet<>();
+        boolean valid = true;
+        for (Element member : uiClass.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.FIELD || !member.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            Object constant = ((VariableElement) member).getConstantValue();
+            if (!(constant instanceof String)) {
+                continue;
+            }
+            String field = toField(member, (String) constant, imports);
+            if (field == null) {
+                valid = false;
+            } else {
+                fields.append(field);
+            }
+        }
+        if (!valid) {
+            return;
+        }
+
+        imports.add("commons.LocatorType");
+        StringBuilder importLines = new StringBuilder();
+        for (String name : imports) {
+            importLines.append("import ").append(name).append(";\n");
+        }
+
+        String source = "package " + packageName + ";\n\n"
+                + importLines + "\n"
+                + "import javax.annotation.processing.Generated;\n\n"
+                + "/**\n * Typed locators of " + uiName + ", generated at compile time. Do not edit\n */\n"
+                + "@Generated(\"" + LocatorProcessor.class.getName() + "\")\n"
+                + "public final class " + className + " {\n"
+                + fields
+                + "\n    private " + className + "() {\n    }\n}\n";
+        try (Writer writer = processingEnv.getFiler().createSourceFile(packageName + "." + className, uiClass).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + className + ": " + e.getMessage(), uiClass);
+        }
+    }
+
+    /**
+     * One generated field, or null after reporting why the locator is invalid
+     */
+    private String toField(Element member, String locator, Set<String> imports) {
+        String type = null;
+        String value = null;
+        for (String[] locatorType : LOCATOR_TYPES) {
+            if (locator.regionMatches(true, 0, locatorType[0], 0, locatorType[0].length())) {
+                type = locatorType[1];
+                value = locator.substring(locatorType[0].length());
+                break;
+            }
+        }
+        if (type == null) {
+            return error(member, "Locator type not supported: \"" + locator + "\" (use id=, class=, name=, css= or xpath=)");
+        }
+
+        int arity = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != '%') {
+                continue;
+            }
+            char next = i + 1 < value.length() ? value.charAt(i + 1) : ' ';
+            if (next == 's') {
+                arity++;
+            } else if (next != '%') {
+                return error(member, "Only %s placeholders are supported: \"" + locator + "\"");
+            }
+            i++;
+        }
+        if (arity > MAX_ARITY) {
+            return error(member, "At most " + MAX_ARITY + " %s placeholders are supported: \"" + locator + "\"");
+        }
+
+        if ("XPATH".equals(type)) {
+            try {
+                XPathFactory.newInstance().newXPath().compile(value.replace("%s", "x").replace("%%", "%"));
+            } catch (XPathExpressionException e) {
+                return error(member, "Invalid xpath \"" + value + "\": " + e.getMessage());
+            }
+        }
+
+        String locatorClass = arity == 0 ? "Locator" : "Locator" + arity;
+        String name = member.getSimpleName().toString();
+        imports.add("commons." + locatorClass);
+        return "    public static final " + locatorClass + " " + name + " = " + locatorClass + ".of(\""
+                + name + "\", LocatorType." + type + ", \"" + escape(value) + "\");\n";
+    }
+
+    private String error(Element member, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, member);
+        return null;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -2,7 +2,7 @@ package pageObjects;
 
 import commons.BasePage;
 import org.openqa.selenium.WebDriver;
-import pageUIs.HomePageUI;
+import pageUIs.HomePageLocators;
 
 public class HomePagePO extends BasePage {
     WebDriver driver;
@@ -12,18 +12,17 @@ public class HomePagePO extends BasePage {
     }
 
     public int getSliderSize() {
-        waitForElementVisible(driver, HomePageUI.HEADER_SLIDER_IMAGE);
-        return getElementSize(driver, HomePageUI.HEADER_SLIDER_IMAGE);
+        waitForElementVisible(driver, HomePageLocators.HEADER_SLIDER_IMAGE);
+        return getElementSize(driver, HomePageLocators.HEADER_SLIDER_IMAGE);
     }
 
     public int getArrivalSize() {
-        waitForElementVisible(driver, HomePageUI.ARRIVAL_TITLE);
-        return getElementSize(driver, HomePageUI.ARRIVAL_TITLE);
+        waitForElementVisible(driver, HomePageLocators.ARRIVAL_TITLE);
+        return getElementSize(driver, HomePageLocators.ARRIVAL_TITLE);
     }
 
     public ProductPagePO clickOnImageByTitle(String imageText) {
-        waitForElementClickable(driver, HomePageUI.ARRIVAL_IMAGE_TEXT, imageText);
-        clickToElement(driver, HomePageUI.ARRIVAL_IMAGE_TEXT, imageText);
+        waitAndClick(driver, HomePageLocators.ARRIVAL_IMAGE_TEXT.format(imageText));
         return PageGenerateManager.getProductPage(driver);
     }
 }
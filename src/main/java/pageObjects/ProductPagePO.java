@@ -2,7 +2,7 @@ package pageObjects;
 
 import commons.BasePage;
 import org.openqa.selenium.WebDriver;
-import pageUIs.ProductPageUI;
+import pageUIs.ProductPageLocators;
 
 public class ProductPagePO extends BasePage {
     WebDriver driver;
@@ -12,54 +12,50 @@ public class ProductPagePO extends BasePage {
     }
 
     public boolean isAddToBasketBtnDisplayed() {
-        waitForElementVisible(driver, ProductPageUI.ADD_TO_BASKET_BUTTON);
-        return isElementDisplayed(driver, ProductPageUI.ADD_TO_BASKET_BUTTON);
+        waitForElementVisible(driver, ProductPageLocators.ADD_TO_BASKET_BUTTON);
+        return isElementDisplayed(driver, ProductPageLocators.ADD_TO_BASKET_BUTTON);
     }
 
     public void clickOnAddToBasketButton() {
-        waitForElementClickable(driver, ProductPageUI.ADD_TO_BASKET_BUTTON);
-        clickToElement(driver, ProductPageUI.ADD_TO_BASKET_BUTTON);
+        trackNetworkRequests(driver);
+        waitAndClick(driver, ProductPageLocators.ADD_TO_BASKET_BUTTON);
+        waitForNetworkIdle(driver);
     }
 
     public boolean isSuccessMessageTextAtProductPageDisplayed() {
-        waitForElementVisible(driver, ProductPageUI.SUCCESS_MESSAGE_TEXT);
-        return isElementDisplayed(driver, ProductPageUI.SUCCESS_MESSAGE_TEXT);
+        waitForElementVisible(driver, ProductPageLocators.SUCCESS_MESSAGE_TEXT);
+        return isElementDisplayed(driver, ProductPageLocators.SUCCESS_MESSAGE_TEXT);
     }
 
     public void clickOnTheTabByClass(String tabClass) {
-        waitForElementClickable(driver, ProductPageUI.TAB_BY_CLASS, tabClass);
-        clickToElement(driver, ProductPageUI.TAB_BY_CLASS, tabClass);
+        waitAndClick(driver, ProductPageLocators.TAB_BY_CLASS.format(tabClass));
     }
 
     public String getTabTitleText(String descriptionTitleText) {
-        waitForElementVisible(driver, ProductPageUI.TAB_TITLE_TEXT, descriptionTitleText);
-        return getElementText(driver, ProductPageUI.TAB_TITLE_TEXT, descriptionTitleText);
+        return waitAndGetText(driver, ProductPageLocators.TAB_TITLE_TEXT.format(descriptionTitleText));
     }
 
     public String getProductStock() {
-        waitForElementVisible(driver, ProductPageUI.PRODUCT_STOCK_TEXT);
-        String[] productStock = getElementText(driver, ProductPageUI.PRODUCT_STOCK_TEXT).split(" ");
+        String[] productStock = waitAndGetText(driver, ProductPageLocators.PRODUCT_STOCK_TEXT).split(" ");
         return productStock[0];
     }
 
     public void inputToQuantityTextBox(String productQuantityNumber) {
-        waitForElementVisible(driver, ProductPageUI.PRODUCT_QUANTITY_TEXTBOX);
-        sendkeysToElement(driver, ProductPageUI.PRODUCT_QUANTITY_TEXTBOX, productQuantityNumber);
+        waitAndType(driver, ProductPageLocators.PRODUCT_QUANTITY_TEXTBOX, productQuantityNumber);
     }
 
     public String getErrorMessageAtProductPage() {
-        waitForElementVisible(driver, ProductPageUI.PRODUCT_QUANTITY_TEXTBOX);
-        return getElementAttribute(driver, ProductPageUI.PRODUCT_QUANTITY_TEXTBOX, "validationMessage");
+        waitForElementVisible(driver, ProductPageLocators.PRODUCT_QUANTITY_TEXTBOX);
+        return getElementAttribute(driver, ProductPageLocators.PRODUCT_QUANTITY_TEXTBOX, "validationMessage");
     }
 
     public String getProductItemTextAtMiniCart() {
-        waitForElementVisible(driver, ProductPageUI.PRODUCT_NUMBER_ITEM_TEXT);
-        String[] productItems = getElementText(driver, ProductPageUI.PRODUCT_NUMBER_ITEM_TEXT).split(" ");
+        String[] productItems = waitAndGetText(driver, ProductPageLocators.PRODUCT_NUMBER_ITEM_TEXT).split(" ");
         return productItems[0];
     }
 
     public boolean isBasketTotalsTextDisplayed() {
-        waitForElementVisible(driver, ProductPageUI.BASKET_TOTALS_TEXT);
-        return isElementDisplayed(driver, ProductPageUI.BASKET_TOTALS_TEXT);
+        waitForElementVisible(driver, ProductPageLocators.BASKET_TOTALS_TEXT);
+        return isElementDisplayed(driver, ProductPageLocators.BASKET_TOTALS_TEXT);
     }
 }
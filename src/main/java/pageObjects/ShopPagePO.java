@@ -2,7 +2,7 @@ package pageObjects;
 
 import commons.BasePage;
 import org.openqa.selenium.WebDriver;
-import pageUIs.ShopPageUI;
+import pageUIs.ShopPageLocators;
 
 public class ShopPagePO extends BasePage {
     WebDriver driver;
@@ -12,7 +12,6 @@ public class ShopPagePO extends BasePage {
     }
 
     public void clickOnBreadCrumbsByText(WebDriver driver, String breadCrumbsText) {
-        waitForElementVisible(driver, ShopPageUI.BREAD_CRUMBS_LINK_TEXT, breadCrumbsText);
-        clickToElement(driver, ShopPageUI.BREAD_CRUMBS_LINK_TEXT, breadCrumbsText);
+        waitAndClick(driver, ShopPageLocators.BREAD_CRUMBS_LINK_TEXT.format(breadCrumbsText));
     }
 }
@@ -1,5 +1,8 @@
 package pageUIs;
 
+import locatorGenerator.GenerateLocators;
+
+@GenerateLocators
 public class BaseUI {
     public static final String HEADER_MENU_LINK_TEXT = "xpath=//a[normalize-space()='%s']";
     public static final String MINI_CART = "xpath=//li[@id='wpmenucartli']";
@@ -1,5 +1,8 @@
 package pageUIs;
 
+import locatorGenerator.GenerateLocators;
+
+@GenerateLocators
 public class HomePageUI {
     public static final String HEADER_SLIDER_IMAGE = "xpath=//div[@class='n2-ss-slider-2']//img";
     public static final String ARRIVAL_TITLE = "xpath=//div[@class='themify_builder_sub_row clearfix gutter-default   sub_row_1-0-2']//h3";
@@ -1,5 +1,8 @@
 package pageUIs;
 
+import locatorGenerator.GenerateLocators;
+
+@GenerateLocators
 public class ProductPageUI {
     public static final String ADD_TO_BASKET_BUTTON = "xpath=//button[normalize-space()='Add to basket']";
     public static final String SUCCESS_MESSAGE_TEXT = "xpath=//div[@class='woocommerce-message']";
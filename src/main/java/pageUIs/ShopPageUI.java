@@ -1,5 +1,8 @@
 package pageUIs;
 
+import locatorGenerator.GenerateLocators;
+
+@GenerateLocators
 public class ShopPageUI {
     public static final String BREAD_CRUMBS_LINK_TEXT = "xpath=//a[normalize-space()='%s']";
 }
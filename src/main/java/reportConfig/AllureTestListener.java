@@ -1,6 +1,5 @@
 package reportConfig;
 
-import commons.BaseTest;
 import io.qameta.allure.Attachment;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
@@ -21,11 +20,31 @@ public class AllureTestListener implements ITestListener {
         return (byte[]) ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
     }
 
+    @Attachment(value = "Screenshot of {0}", type = "image/png")
+    public static byte[] saveScreenshotPNG(String testName, byte[] screenshot) {
+        return screenshot;
+    }
+
+    @Attachment(value = "Page of {0}", type = "text/plain")
+    public static String savePageDetails(String testName, String details) {
+        return details;
+    }
+
+    @Attachment(value = "Page source of {0}", type = "text/html")
+    public static String savePageSource(String testName, String pageSource) {
+        return pageSource;
+    }
+
     @Override
     public void onTestFailure(ITestResult iTestResult) {
-        Object testClass = iTestResult.getInstance();
-        WebDriver driver = ((BaseTest) testClass).getDriverInstance();
-        saveScreenshotPNG(iTestResult.getName(), driver);
+        FailureArtifacts artifacts = FailureArtifacts.collect(iTestResult);
+        if (artifacts.getScreenshot() != null) {
+            saveScreenshotPNG(iTestResult.getName(), artifacts.getScreenshot());
+        }
+        savePageDetails(iTestResult.getName(), artifacts.describe());
+        if (artifacts.getPageSource() != null) {
+            savePageSource(iTestResult.getName(), artifacts.getPageSource());
+        }
     }
 
     @Override
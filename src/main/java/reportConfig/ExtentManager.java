@@ -9,14 +9,17 @@ public class ExtentManager {
     public static final ExtentReports extentReports = new ExtentReports();
 
     public synchronized static ExtentReports createExtentReports() {
-        ExtentSparkReporter reporter = new ExtentSparkReporter(GlobalConstants.PROJECT_PATH + "/extentV5/ExtentReport.html");
-        reporter.config().setReportName("Automationtesting In HTML Report");
-        reporter.config().setDocumentTitle("Automationtesting In HTML Report");
-        reporter.config().setTimelineEnabled(true);
-        reporter.config().setEncoding("utf-8");
-        reporter.config().setTheme(Theme.DARK);
+        // Streaming: completed tests are written by ExtentStreamWriter instead of the Spark report
+        if (!GlobalConstants.EXTENT_STREAMING) {
+            ExtentSparkReporter reporter = new ExtentSparkReporter(GlobalConstants.PROJECT_PATH + "/extentV5/ExtentReport.html");
+            reporter.config().setReportName("Automationtesting In HTML Report");
+            reporter.config().setDocumentTitle("Automationtesting In HTML Report");
+            reporter.config().setTimelineEnabled(true);
+            reporter.config().setEncoding("utf-8");
+            reporter.config().setTheme(Theme.DARK);
+            extentReports.attachReporter(reporter);
+        }
 
-        extentReports.attachReporter(reporter);
         extentReports.setSystemInfo("Company", "Automation FC");
         extentReports.setSystemInfo("Project", "Automationtesting In");
         extentReports.setSystemInfo("Team", "VanNL");
@@ -1,21 +1,43 @@
 package reportConfig;
 
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.MediaEntityBuilder;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Media;
 import commons.BaseTest;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
+import commons.GlobalConstants;
 import org.openqa.selenium.WebDriver;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static reportConfig.ExtentTestManager.getTest;
 
-public class ExtentReportListener extends BaseTest implements ITestListener {
+public class ExtentReportListener extends BaseTest implements ISuiteListener, ITestListener {
     private static String getTestMethodName(ITestResult iTestResult) {
         return iTestResult.getMethod().getConstructorOrMethod().getName();
     }
 
+    @Override
+    public void onStart(ISuite suite) {
+    }
+
+    /**
+     * The stream report is marked finished once per suite, onFinish(ITestContext) runs for every &lt;test&gt;
+     * @param suite
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        if (GlobalConstants.EXTENT_STREAMING) {
+            ScreenshotPipeline.getPipeline().flush();
+            ExtentStreamWriter.getWriter().finish();
+        }
+    }
+
     @Override
     public void onStart(ITestContext iTestContext) {
         iTestContext.setAttribute("WebDriver", this.getDriverInstance());
@@ -23,32 +45,103 @@ public class ExtentReportListener extends BaseTest implements ITestListener {
 
     @Override
     public void onFinish(ITestContext iTestContext) {
+        ScreenshotPipeline.getPipeline().flush();
         ExtentManager.extentReports.flush();
     }
 
     @Override
     public void onTestStart(ITestResult iTestResult) {
+        ExtentTestManager.endTest();
     }
 
     @Override
     public void onTestSuccess(ITestResult iTestResult) {
+        completeTest(getTest(iTestResult));
     }
 
     @Override
     public void onTestFailure(ITestResult iTestResult) {
-        Object testClass = iTestResult.getInstance();
-        WebDriver driver = ((BaseTest) testClass).getDriverInstance();
-        String base64Screenshot = "data:image/png;base64," + ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
-        getTest().log(Status.FAIL, "Test Failed", getTest().addScreenCaptureFromBase64String(base64Screenshot).getModel().getMedia().get(0));
+        FailureArtifacts artifacts = FailureArtifacts.collect(iTestResult);
+        ExtentTest test = getTest(iTestResult);
+        if (test == null) {
+            return;
+        }
+        if (artifacts.getScreenshot() == null) {
+            test.log(Status.FAIL, "Test Failed - " + artifacts.describe());
+            completeTest(test);
+            return;
+        }
+        // Streaming reports link the screenshot from the screenshot store instead of inlining it
+        String hash = GlobalConstants.EXTENT_STREAMING ? ScreenshotStore.hash(artifacts.getScreenshot()) : null;
+        // Logged once: with the screenshot, or without it when encoding or storing the screenshot failed
+        AtomicBoolean logged = new AtomicBoolean();
+        ScreenshotPipeline.getPipeline().submit(iTestResult.getName(), artifacts.getScreenshot(), encoded -> {
+            Media media = hash == null
+                    ? MediaEntityBuilder.createScreenCaptureFromBase64String(encoded.getDataUri()).build()
+                    : MediaEntityBuilder.createScreenCaptureFromPath(storeScreenshot(hash, encoded)).build();
+            if (logged.compareAndSet(false, true)) {
+                logFailure(test, "Test Failed - " + artifacts.describe(), media);
+            }
+        }, error -> {
+            if (hash != null) {
+                ScreenshotStore.getStore().release(hash);
+            }
+            if (logged.compareAndSet(false, true)) {
+                logFailure(test, "Test Failed - " + artifacts.describe() + " (no screenshot: " + error.getMessage() + ")", null);
+            }
+        });
     }
 
     @Override
     public void onTestSkipped(ITestResult iTestResult) {
-        getTest().log(Status.SKIP, "Test Skipped");
+        ExtentTest test = getTest(iTestResult);
+        if (test == null) {
+            return;
+        }
+        test.log(Status.SKIP, "Test Skipped");
+        completeTest(test);
     }
 
     @Override
     public void onTestFailedButWithinSuccessPercentage(ITestResult iTestResult) {
-        getTest().log(Status.FAIL, "Test Failed with percentage" + getTestMethodName(iTestResult));
+        ExtentTest test = getTest(iTestResult);
+        if (test != null) {
+            test.log(Status.FAIL, "Test Failed with percentage" + getTestMethodName(iTestResult));
+        }
+    }
+
+    private static void logFailure(ExtentTest test, String details, Media media) {
+        synchronized (test) {
+            if (media == null) {
+                test.log(Status.FAIL, details);
+            } else {
+                test.log(Status.FAIL, details, media);
+            }
+        }
+        completeTest(test);
+    }
+
+    /**
+     * Streaming only: write the finished test out and release it
+     * @param test
+     */
+    private static void completeTest(ExtentTest test) {
+        if (GlobalConstants.EXTENT_STREAMING && test != null) {
+            writeTest(test);
+        }
+    }
+
+    private static void writeTest(ExtentTest test) {
+        ExtentStreamWriter.getWriter().write(test);
+        ExtentManager.extentReports.removeTest(test);
+    }
+
+    private static String storeScreenshot(String hash, ScreenshotPipeline.Screenshot encoded) {
+        ScreenshotStore store = ScreenshotStore.getStore();
+        store.sweepOnce();
+        if (store.claim(hash)) {
+            store.write(hash, encoded.getBytes());
+        }
+        return ExtentStreamWriter.getWriter().linkTo(store.pathOf(hash));
     }
 }
@@ -0,0 +1,212 @@
+package reportConfig;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.Media;
+import com.aventstack.extentreports.model.ScreenCapture;
+import com.aventstack.extentreports.model.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.GlobalConstants;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extent report written while the suite runs (-Dextent.streaming=true), instead of one ExtentReports holding
+ * every test until onFinish.
+ * Each completed test is appended to the current shard, extentV5/data/shard-NNNNN.js, as its own
+ * extentShard(n, [test]) call and can then be removed from ExtentReports; a shard is closed after extent.shardSize
+ * tests. Nothing of a written test is kept in memory and it is written once, only the small data/index.js with the
+ * per shard counts is rewritten. ExtentStreamReport.html shows the index and loads a shard only when it is opened.
+ * The index is written to a temporary name and moved into place after the test is appended, so a run that crashes
+ * still leaves a report of the tests completed so far
+ */
+public class ExtentStreamWriter {
+    private static final org.apache.commons.logging.Log log = LogFactory.getLog(ExtentStreamWriter.class);
+    private static final String SHELL = "extent-stream.html";
+    private static final ExtentStreamWriter writer = new ExtentStreamWriter(Paths.get(GlobalConstants.PROJECT_PATH, "extentV5"),
+            GlobalConstants.EXTENT_SHARD_SIZE);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path directory;
+    private final Path dataDirectory;
+    private final int shardSize;
+
+    private int shardTests;
+    private final List<Map<String, Object>> shards = new ArrayList<>();
+    private final Map<String, Integer> totals = new LinkedHashMap<>();
+    private long startTime;
+    private boolean started;
+
+    ExtentStreamWriter(Path directory, int shardSize) {
+        this.directory = directory;
+        this.dataDirectory = directory.resolve("data");
+        this.shardSize = Math.max(1, shardSize);
+    }
+
+    public static ExtentStreamWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * Link from the report to a file, e.g. a stored screenshot
+     * @param file
+     * @return the path relative to the report folder
+     */
+    public String linkTo(Path file) {
+        return directory.toAbsolutePath().relativize(file.toAbsolutePath()).toString().replace('\\', '/');
+    }
+
+    /**
+     * Write the completed test to the current shard and update the index
+     * @param test
+     */
+    public synchronized void write(ExtentTest test) {
+        try {
+            start();
+            Test model = test.getModel();
+            String json = mapper.writeValueAsString(toMap(model));
+
+            Map<String, Object> shard = shardTests == 0 ? newShard() : shards.get(shards.size() - 1);
+            Files.write(dataDirectory.resolve((String) shard.get("file")),
+                    ("extentShard(" + shard.get("number") + ", [" + json + "]);\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+            String status = model.getStatus().toString().toLowerCase();
+            shardTests++;
+            shard.put("tests", shardTests);
+            shard.merge(status, 1, (count, one) -> (Integer) count + 1);
+            totals.merge(status, 1, Integer::sum);
+            writeIndex(false);
+            if (shardTests >= shardSize) {
+                shardTests = 0;
+            }
+        } catch (IOException e) {
+            log.info("Extent stream report not updated for " + test.getModel().getName() + " - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mark the report as complete, a report left unfinished shows as partial
+     */
+    public synchronized void finish() {
+        if (!started) {
+            return;
+        }
+        try {
+            writeIndex(true);
+        } catch (IOException e) {
+            log.info("Extent stream report not finished - " + e.getMessage());
+        }
+    }
+
+    private void start() throws IOException {
+        if (started) {
+            return;
+        }
+        Files.createDirectories(dataDirectory);
+        try (DirectoryStream<Path> oldShards = Files.newDirectoryStream(dataDirectory, "shard-*.js")) {
+            for (Path oldShard : oldShards) {
+                Files.delete(oldShard);
+            }
+        }
+        try (InputStream shell = ExtentStreamWriter.class.getResourceAsStream(SHELL)) {
+            if (shell == null) {
+                throw new IOException("Missing report shell " + SHELL);
+            }
+            Files.copy(shell, directory.resolve("ExtentStreamReport.html"), StandardCopyOption.REPLACE_EXISTING);
+        }
+        startTime = System.currentTimeMillis();
+        started = true;
+    }
+
+    private Map<String, Object> newShard() {
+        Map<String, Object> shard = new LinkedHashMap<>();
+        int number = shards.size() + 1;
+        shard.put("number", number);
+        shard.put("file", String.format("shard-%05d.js", number));
+        shard.put("tests", 0);
+        shards.add(shard);
+        return shard;
+    }
+
+    private void writeIndex(boolean finished) throws IOException {
+        Map<String, Object> index = new LinkedHashMap<>();
+        index.put("name", "Automationtesting In HTML Report");
+        index.put("startTime", startTime);
+        index.put("updateTime", System.currentTimeMillis());
+        index.put("finished", finished);
+        index.put("shardSize", shardSize);
+        index.put("totals", totals);
+        index.put("shards", shards);
+        writeAtomically(dataDirectory.resolve("index.js"), "extentIndex(" + mapper.writeValueAsString(index) + ");\n");
+    }
+
+    private void writeAtomically(Path file, String content) throws IOException {
+        Path temp = Files.createTempFile(dataDirectory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Map<String, Object> toMap(Test model) {
+        Map<String, Object> test = new LinkedHashMap<>();
+        test.put("name", model.getName());
+        test.put("description", model.getDescription());
+        test.put("status", model.getStatus().toString().toLowerCase());
+        test.put("startTime", model.getStartTime() == null ? null : model.getStartTime().getTime());
+        test.put("endTime", model.getEndTime() == null ? null : model.getEndTime().getTime());
+
+        List<Map<String, Object>> logs = new ArrayList<>();
+        for (Log entry : model.getLogs()) {
+            Map<String, Object> step = new LinkedHashMap<>();
+            step.put("status", entry.getStatus().toString().toLowerCase());
+            step.put("time", entry.getTimestamp() == null ? null : entry.getTimestamp().getTime());
+            step.put("details", entry.getDetails());
+            if (entry.getException() != null) {
+                step.put("exception", entry.getException().getStackTrace());
+            }
+            if (entry.getMedia() != null) {
+                step.put("media", toLink(entry.getMedia()));
+            }
+            logs.add(step);
+        }
+        test.put("logs", logs);
+
+        List<Object> media = new ArrayList<>();
+        for (Media item : model.getMedia()) {
+            media.add(toLink(item));
+        }
+        test.put("media", media);
+
+        List<Map<String, Object>> children = new ArrayList<>();
+        for (Test child : model.getChildren()) {
+            children.add(toMap(child));
+        }
+        test.put("children", children);
+        return test;
+    }
+
+    private static String toLink(Media media) {
+        if (media instanceof ScreenCapture && ((ScreenCapture) media).getBase64() != null) {
+            String base64 = ((ScreenCapture) media).getBase64();
+            return base64.startsWith("data:") ? base64 : "data:image/png;base64," + base64;
+        }
+        return media.getPath();
+    }
+}
@@ -2,21 +2,45 @@ package reportConfig;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import org.testng.ITestResult;
+import org.testng.Reporter;
 
-import java.util.HashMap;
-import java.util.Map;
-
+/**
+ * Report test of the running TestNG invocation. The test method reaches it through a ThreadLocal, so a step
+ * log is a plain field read with no shared map or lock; listeners, which may run once the thread has moved on,
+ * read it from the ITestResult attribute startTest sets.
+ * Listeners clear the thread's test when an invocation starts, so a method that starts no report test never
+ * logs into the test of the previous method on the same thread
+ */
 public class ExtentTestManager {
-    static Map<Integer, ExtentTest> extentTestMap = new HashMap<Integer, ExtentTest>();
+    private static final String TEST_ATTRIBUTE = ExtentTest.class.getName();
+    private static final ThreadLocal<ExtentTest> currentTest = new ThreadLocal<>();
     static ExtentReports extent = ExtentManager.createExtentReports();
 
-    public static synchronized ExtentTest getTest() {
-        return extentTestMap.get((int) Thread.currentThread().getId());
+    public static ExtentTest getTest() {
+        return currentTest.get();
+    }
+
+    /**
+     * Report test started by the invocation of the result, null when the method started none
+     * @param result
+     * @return
+     */
+    public static ExtentTest getTest(ITestResult result) {
+        return (ExtentTest) result.getAttribute(TEST_ATTRIBUTE);
     }
 
-    public static synchronized ExtentTest startTest(String testName, String desc) {
+    public static ExtentTest startTest(String testName, String desc) {
         ExtentTest test = extent.createTest(testName, desc);
-        extentTestMap.put((int) Thread.currentThread().getId(), test);
+        currentTest.set(test);
+        ITestResult result = Reporter.getCurrentTestResult();
+        if (result != null) {
+            result.setAttribute(TEST_ATTRIBUTE, test);
+        }
         return test;
     }
+
+    public static void endTest() {
+        currentTest.remove();
+    }
 }
@@ -0,0 +1,104 @@
+package reportConfig;
+
+import commons.BaseTest;
+import commons.GlobalConstants;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.ITestResult;
+
+/**
+ * What the browser showed when a test failed: screenshot, url, title and, with -DfailureArtifacts.dom=true,
+ * the page source.
+ * Captured once per failed result and kept as a result attribute, so every failure listener (Allure, Extent,
+ * ReportNG) reads the same artifacts and the browser is asked only once however many reporters are enabled.
+ * An artifact the browser cannot provide (session gone, no screenshot support) is simply null
+ */
+public final class FailureArtifacts {
+    private static final Log log = LogFactory.getLog(FailureArtifacts.class);
+    private static final String ATTRIBUTE = FailureArtifacts.class.getName();
+
+    private final byte[] screenshot;
+    private final String url;
+    private final String title;
+    private final String pageSource;
+
+    private FailureArtifacts(byte[] screenshot, String url, String title, String pageSource) {
+        this.screenshot = screenshot;
+        this.url = url;
+        this.title = title;
+        this.pageSource = pageSource;
+    }
+
+    /**
+     * Artifacts of the failed result, captured by the first listener that asks
+     * @param result
+     * @return
+     */
+    public static FailureArtifacts collect(ITestResult result) {
+        synchronized (result) {
+            FailureArtifacts artifacts = (FailureArtifacts) result.getAttribute(ATTRIBUTE);
+            if (artifacts == null) {
+                artifacts = capture(result);
+                result.setAttribute(ATTRIBUTE, artifacts);
+            }
+            return artifacts;
+        }
+    }
+
+    private static FailureArtifacts capture(ITestResult result) {
+        Object testClass = result.getInstance();
+        WebDriver driver = testClass instanceof BaseTest ? ((BaseTest) testClass).getDriverInstance() : null;
+        if (driver == null) {
+            return new FailureArtifacts(null, null, null, null);
+        }
+        byte[] screenshot = null;
+        if (driver instanceof TakesScreenshot) {
+            try {
+                screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            } catch (WebDriverException e) {
+                log.info("No failure screenshot of " + result.getName() + " - " + e.getMessage());
+            }
+        }
+        String url = null;
+        String title = null;
+        String pageSource = null;
+        try {
+            url = driver.getCurrentUrl();
+            title = driver.getTitle();
+            if (GlobalConstants.FAILURE_DOM_SNAPSHOT) {
+                pageSource = driver.getPageSource();
+            }
+        } catch (WebDriverException e) {
+            log.info("No failure page details of " + result.getName() + " - " + e.getMessage());
+        }
+        return new FailureArtifacts(screenshot, url, title, pageSource);
+    }
+
+    public byte[] getScreenshot() {
+        return screenshot;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getPageSource() {
+        return pageSource;
+    }
+
+    /**
+     * One line for the reports, e.g. "Failed on Shop - Automation Practice Site (http://practice...)"
+     * @return
+     */
+    public String describe() {
+        return url == null ? "Failed, no browser page available" : "Failed on " + title + " (" + url + ")";
+    }
+}
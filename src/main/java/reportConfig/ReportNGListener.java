@@ -1,8 +1,5 @@
 package reportConfig;
 
-import commons.BaseTest;
-import commons.GlobalConstants;
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
@@ -11,11 +8,6 @@ import org.testng.ITestListener;
 import org.testng.ITestResult;
 import org.testng.Reporter;
 
-import java.io.File;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-
 public class ReportNGListener implements ITestListener {
 
     @Override
@@ -32,28 +24,40 @@ public class ReportNGListener implements ITestListener {
     public void onTestFailure(ITestResult result) {
         System.setProperty("org.uncommons.reportng.escape-output", "false");
 
-        Object testClass = result.getInstance();
-        WebDriver webDriver = ((BaseTest) testClass).getDriverInstance();
+        FailureArtifacts artifacts = FailureArtifacts.collect(result);
+        Reporter.setCurrentTestResult(result);
+        Reporter.log(artifacts.describe());
+        if (artifacts.getScreenshot() == null) {
+            Reporter.setCurrentTestResult(null);
+            return;
+        }
 
-        String screenshotPath = captureScreenshot(webDriver, result.getName());
-        Reporter.getCurrentTestResult();
+        String screenshotPath = saveScreenshot(artifacts.getScreenshot(), result.getName());
         Reporter.log("<br><a target=\"_blank\" href=\"file:///" + screenshotPath + "\">" + "<img src=\"file:///" + screenshotPath + "\" " + "height='100' width='150'/> " + "</a></br>");
 //        Reporter.log("<br><a href=\"data:image/png;base64," + screenshotPath + "\">" + "<img src=\"data:image/png;base64," + screenshotPath + "\" " + "height='100' width='150'/> " + "</a></br>");
         Reporter.setCurrentTestResult(null);
     }
 
     public String captureScreenshot(WebDriver driver, String screenshotName) {
-        try {
-            Calendar calendar = Calendar.getInstance();
-            SimpleDateFormat formater = new SimpleDateFormat("dd_MM_yyyy_hh_mm_ss");
-            File source = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            String screenPath = GlobalConstants.REPORTNG_SCREENSHOT + screenshotName + "_" + formater.format(calendar.getTime()) + ".png";
-            FileUtils.copyFile(source, new File(screenPath));
-            return screenPath;
-        } catch (IOException e) {
-            System.out.println("Exception while taking screenshot: " + e.getMessage());
-            return e.getMessage();
+        return saveScreenshot(((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES), screenshotName);
+    }
+
+    /**
+     * Store the screenshot by its content hash, through the screenshot pipeline. An identical screenshot
+     * already in the store is not written again
+     * @param screenshot
+     * @param screenshotName
+     * @return the path the screenshot is stored at
+     */
+    public String saveScreenshot(byte[] screenshot, String screenshotName) {
+        ScreenshotStore store = ScreenshotStore.getStore();
+        store.sweepOnce();
+        String hash = ScreenshotStore.hash(screenshot);
+        if (store.claim(hash)) {
+            ScreenshotPipeline.getPipeline().submit(screenshotName, screenshot, encoded -> store.write(hash, encoded.getBytes()),
+                    error -> store.release(hash));
         }
+        return store.pathOf(hash).toString();
     }
 
     public String captureScreenshotBase64(WebDriver driver, String screenshotName) {
@@ -72,11 +76,11 @@ public class ReportNGListener implements ITestListener {
 
     @Override
     public void onStart(ITestContext iTestContext) {
-
+        ScreenshotStore.getStore().sweepOnce();
     }
 
     @Override
     public void onFinish(ITestContext iTestContext) {
-
+        ScreenshotPipeline.getPipeline().flush();
     }
 }
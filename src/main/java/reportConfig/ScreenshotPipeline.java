@@ -0,0 +1,202 @@
+package reportConfig;
+
+import commons.GlobalConstants;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Processes failure screenshots off the test thread: the listeners only take the raw PNG bytes, then the
+ * optional downscale (screenshot.scale), JPEG encoding (screenshot.format=jpg), base64 and the attachment to
+ * the report (or the file write) run here.
+ * The queue is bounded: when the workers are busy and the queue is full the test thread processes its
+ * screenshot itself, so a burst of failures cannot pile up screenshots in memory.
+ * flush() must run before the reports are written
+ */
+public class ScreenshotPipeline {
+    private static final Log log = LogFactory.getLog(ScreenshotPipeline.class);
+    private static final ScreenshotPipeline pipeline = new ScreenshotPipeline(GlobalConstants.SCREENSHOT_THREADS,
+            GlobalConstants.SCREENSHOT_QUEUE_SIZE);
+
+    private final ThreadPoolExecutor executor;
+    private final Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+
+    ScreenshotPipeline(int threads, int queueSize) {
+        int size = Math.max(1, threads);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+            Thread thread = new Thread(runnable, "screenshot-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static ScreenshotPipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * File extension of the screenshots produced with the current settings, e.g. to name a file up front
+     * @return
+     */
+    public static String getFileExtension() {
+        return isJpeg() ? "jpg" : "png";
+    }
+
+    /**
+     * Encode the screenshot and hand it to the attach step, in the background unless screenshot.async=false
+     * @param name
+     * @param png raw screenshot bytes, as taken on the test thread
+     * @param attach what to do with the encoded screenshot (report log, file write)
+     */
+    public void submit(String name, byte[] png, Consumer<Screenshot> attach) {
+        submit(name, png, attach, error -> {
+        });
+    }
+
+    /**
+     * Same as submit, with a fallback for when the encoding or the attach step fails
+     * @param name
+     * @param png raw screenshot bytes, as taken on the test thread
+     * @param attach what to do with the encoded screenshot (report log, file write)
+     * @param failed called with the error instead of (or after a failed) attach, e.g. to undo a reservation
+     */
+    public void submit(String name, byte[] png, Consumer<Screenshot> attach, Consumer<RuntimeException> failed) {
+        Runnable process = () -> {
+            try {
+                attach.accept(encode(png));
+            } catch (RuntimeException e) {
+                log.info("Screenshot of " + name + " failed - " + e.getMessage());
+                failed.accept(e);
+            }
+        };
+        if (!GlobalConstants.SCREENSHOT_ASYNC) {
+            process.run();
+            return;
+        }
+        CompletableFuture<Void> future = CompletableFuture.runAsync(process, executor);
+        inFlight.add(future);
+        future.whenComplete((result, error) -> inFlight.remove(future));
+    }
+
+    /**
+     * Wait for the screenshots submitted so far, called before a report is flushed
+     */
+    public void flush() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(GlobalConstants.LONG_TIMEOUT);
+        for (CompletableFuture<Void> future : inFlight) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                log.info("Screenshots still processing at report flush, " + inFlight.size() + " left");
+                break;
+            } catch (ExecutionException e) {
+                // already logged by the pipeline itself
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private static boolean isJpeg() {
+        return "jpg".equalsIgnoreCase(GlobalConstants.SCREENSHOT_FORMAT) || "jpeg".equalsIgnoreCase(GlobalConstants.SCREENSHOT_FORMAT);
+    }
+
+    static Screenshot encode(byte[] png) {
+        double scale = GlobalConstants.SCREENSHOT_SCALE;
+        boolean jpeg = isJpeg();
+        if (!jpeg && scale >= 1.0) {
+            return new Screenshot(png, "image/png");
+        }
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                return new Screenshot(png, "image/png");
+            }
+            int width = Math.max(1, (int) Math.round(image.getWidth() * Math.min(1.0, scale)));
+            int height = Math.max(1, (int) Math.round(image.getHeight() * Math.min(1.0, scale)));
+            BufferedImage scaled = new BufferedImage(width, height, jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = scaled.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+            graphics.dispose();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(png.length / 2);
+            if (jpeg) {
+                writeJpeg(scaled, out);
+                return new Screenshot(out.toByteArray(), "image/jpeg");
+            }
+            ImageIO.write(scaled, "png", out);
+            return new Screenshot(out.toByteArray(), "image/png");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeJpeg(BufferedImage image, ByteArrayOutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(GlobalConstants.SCREENSHOT_JPEG_QUALITY);
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * An encoded screenshot
+     */
+    public static final class Screenshot {
+        private final byte[] bytes;
+        private final String mimeType;
+
+        Screenshot(byte[] bytes, String mimeType) {
+            this.bytes = bytes;
+            this.mimeType = mimeType;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        public String getBase64() {
+            return Base64.getEncoder().encodeToString(bytes);
+        }
+
+        public String getDataUri() {
+            return "data:" + mimeType + ";base64," + getBase64();
+        }
+    }
+}
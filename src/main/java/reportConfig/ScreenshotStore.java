@@ -0,0 +1,211 @@
+package reportConfig;
+
+import commons.GlobalConstants;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Failure screenshots stored by content: the file name is the SHA-256 of the raw screenshot, so a suite failing
+ * on the same page again and again writes the image once and every report line references that one file.
+ * Files are written through a FileChannel to a temporary name and moved into place, so a report never links a
+ * half written image.
+ * sweep() applies the retention, screenshotStore.maxAgeDays and screenshotStore.maxMb: files older than the
+ * age go first, then the least recently referenced ones until the store fits the size
+ */
+public class ScreenshotStore {
+    private static final Log log = LogFactory.getLog(ScreenshotStore.class);
+    private static final ScreenshotStore store = new ScreenshotStore(Paths.get(GlobalConstants.REPORTNG_SCREENSHOT));
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path directory;
+    private final Set<String> claimed = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean swept = new AtomicBoolean();
+
+    ScreenshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public static ScreenshotStore getStore() {
+        return store;
+    }
+
+    /**
+     * Content hash of the raw screenshot, the key the screenshot is stored and referenced by
+     * @param screenshot
+     * @return
+     */
+    public static String hash(byte[] screenshot) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(screenshot);
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+                hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Where the screenshot of the hash is (or will be) stored
+     * @param hash
+     * @return
+     */
+    public Path pathOf(String hash) {
+        return directory.resolve(hash + "." + ScreenshotPipeline.getFileExtension());
+    }
+
+    /**
+     * Claim the hash for writing: true for the first caller when the store does not have the file yet.
+     * A file already stored only gets its modification time refreshed, so the retention keeps it
+     * @param hash
+     * @return
+     */
+    public boolean claim(String hash) {
+        if (!claimed.add(hash)) {
+            return false;
+        }
+        Path path = pathOf(hash);
+        if (Files.exists(path)) {
+            try {
+                Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (IOException e) {
+                log.debug("Could not refresh " + path + " - " + e.getMessage());
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Give up a claim whose screenshot was not stored (encoding or writing failed), so the next identical
+     * screenshot is written instead of linking a file that never comes
+     * @param hash
+     */
+    public void release(String hash) {
+        claimed.remove(hash);
+    }
+
+    /**
+     * Write the encoded screenshot of the hash, unless another writer got there first. A failed write releases
+     * the claim
+     * @param hash
+     * @param bytes
+     */
+    public void write(String hash, byte[] bytes) {
+        Path path = pathOf(hash);
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, hash, ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+        } catch (FileAlreadyExistsException e) {
+            log.debug(path + " already stored");
+        } catch (IOException e) {
+            release(hash);
+            throw new UncheckedIOException(e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.debug("Could not delete " + temp + " - " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply the retention once per run, before the first screenshot of the run is stored
+     */
+    public void sweepOnce() {
+        if (swept.compareAndSet(false, true)) {
+            sweep(TimeUnit.DAYS.toMillis(GlobalConstants.SCREENSHOT_STORE_MAX_AGE_DAYS),
+                    GlobalConstants.SCREENSHOT_STORE_MAX_MB * 1024 * 1024);
+        }
+    }
+
+    /**
+     * Delete the files older than maxAgeMillis, then the oldest ones until the store is at most maxBytes
+     * @param maxAgeMillis
+     * @param maxBytes
+     */
+    void sweep(long maxAgeMillis, long maxBytes) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<StoredFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                files.add(new StoredFile(path, Files.getLastModifiedTime(path).toMillis(), Files.size(path)));
+            }
+        } catch (IOException e) {
+            log.info("Screenshot retention skipped - " + e.getMessage());
+            return;
+        }
+        files.sort(Comparator.comparingLong(file -> file.modified));
+
+        long cutoff = System.currentTimeMillis() - maxAgeMillis;
+        long total = files.stream().mapToLong(file -> file.size).sum();
+        int deleted = 0;
+        for (StoredFile file : files) {
+            if (file.modified >= cutoff && total <= maxBytes) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(file.path);
+                total -= file.size;
+                deleted++;
+            } catch (IOException e) {
+                log.debug("Could not delete " + file.path + " - " + e.getMessage());
+            }
+        }
+        if (deleted > 0) {
+            log.info("Screenshot retention deleted " + deleted + " file(s), " + total / 1024 + " KB left in " + directory);
+        }
+    }
+
+    private static final class StoredFile {
+        private final Path path;
+        private final long modified;
+        private final long size;
+
+        private StoredFile(Path path, long modified, long size) {
+            this.path = path;
+            this.modified = modified;
+            this.size = size;
+        }
+    }
+}
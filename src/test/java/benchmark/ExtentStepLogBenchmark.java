@@ -0,0 +1,102 @@
+package benchmark;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reportConfig.ExtentManager;
+import reportConfig.ExtentTestManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step logging from 16 parallel test threads, ExtentTestManager.getTest().log(Status.INFO, ...) as in
+ * HomePage_2_Arrivals, with the test looked up through a static synchronized HashMap keyed by the truncated
+ * thread id, the ConcurrentHashMap keyed by thread id, and the ThreadLocal of ExtentTestManager.
+ * Every thread moves on to a new test after STEPS_PER_TEST steps like a test method does; Extent recomputes
+ * the test status over all its logs on each step, so one endless test would only measure that.
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmark.ExtentStepLogBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dextent.streaming=true")
+@Threads(16)
+public class ExtentStepLogBenchmark {
+    private static final int STEPS_PER_TEST = 20;
+    private static final String STEP = "Home Page - Step 01: Click to 'Shop' link at header menu";
+
+    private static final Map<Integer, ExtentTest> synchronizedMap = new HashMap<>();
+    private static final Map<Long, ExtentTest> threadIdMap = new ConcurrentHashMap<>();
+
+    private ExtentTest test;
+    private int steps;
+
+    @TearDown(Level.Iteration)
+    public void endTest() {
+        if (test != null) {
+            ExtentManager.extentReports.removeTest(test);
+            test = null;
+        }
+        ExtentTestManager.endTest();
+    }
+
+    @Benchmark
+    public ExtentTest synchronizedMap() {
+        nextStep();
+        return getSynchronized().log(Status.INFO, STEP);
+    }
+
+    @Benchmark
+    public ExtentTest threadIdMap() {
+        nextStep();
+        return threadIdMap.get(Thread.currentThread().getId()).log(Status.INFO, STEP);
+    }
+
+    @Benchmark
+    public ExtentTest threadLocal() {
+        nextStep();
+        return ExtentTestManager.getTest().log(Status.INFO, STEP);
+    }
+
+    private void nextStep() {
+        if (test != null && ++steps < STEPS_PER_TEST) {
+            return;
+        }
+        endTest();
+        steps = 0;
+        test = ExtentTestManager.startTest(Thread.currentThread().getName(), "Step log benchmark");
+        putSynchronized(test);
+        threadIdMap.put(Thread.currentThread().getId(), test);
+    }
+
+    private static synchronized ExtentTest getSynchronized() {
+        return synchronizedMap.get((int) Thread.currentThread().getId());
+    }
+
+    private static synchronized void putSynchronized(ExtentTest test) {
+        synchronizedMap.put((int) Thread.currentThread().getId(), test);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ExtentStepLogBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package benchmark;
+
+import commons.BasePage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import pageUIs.BaseUI;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locator resolution cost of a hot clickToElement(driver, BaseUI.HEADER_MENU_LINK_TEXT, "Shop") loop,
+ * parsing and formatting on every call (the old BasePage code) against LocatorCache.
+ * The driver is a no-op stub so only the framework side is measured.
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmark.LocatorCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LocatorCacheBenchmark {
+    private WebDriver driver;
+    private BenchmarkPage page;
+
+    @Setup
+    public void setUp() {
+        WebElement element = (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebElement.class},
+                (proxy, method, args) -> null);
+        driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> "findElement".equals(method.getName()) ? element : Collections.emptyList());
+        page = new BenchmarkPage();
+    }
+
+    @Benchmark
+    public void parseOnEveryCall() {
+        driver.findElement(legacyByLocator(legacyDynamicXpath(BaseUI.HEADER_MENU_LINK_TEXT, "Shop"))).click();
+    }
+
+    @Benchmark
+    public void locatorCache() {
+        page.click(driver, BaseUI.HEADER_MENU_LINK_TEXT, "Shop");
+    }
+
+    @Benchmark
+    public void locatorCacheStatic() {
+        page.click(driver, BaseUI.MINI_CART);
+    }
+
+    private static By legacyByLocator(String locatorType) {
+        By by;
+        if (locatorType.startsWith("id=") || locatorType.startsWith("ID=") || locatorType.startsWith("Id=")) {
+            by = By.id(locatorType.substring(3));
+        } else if (locatorType.startsWith("class=") || locatorType.startsWith("Class=") || locatorType.startsWith("CLASS=")) {
+            by = By.className(locatorType.substring(6));
+        } else if (locatorType.startsWith("name=") || locatorType.startsWith("NAME=") || locatorType.startsWith("Name=")) {
+            by = By.name(locatorType.substring(5));
+        } else if (locatorType.startsWith("css=") || locatorType.startsWith("CSS=") || locatorType.startsWith("Css=")) {
+            by = By.cssSelector(locatorType.substring(4));
+        } else if (locatorType.startsWith("xpath=") || locatorType.startsWith("Xpath=") || locatorType.startsWith("XPATH=")) {
+            by = By.xpath(locatorType.substring(6));
+        } else {
+            throw new RuntimeException("Locator type not supported");
+        }
+        return by;
+    }
+
+    private static String legacyDynamicXpath(String locatorType, String... dynamicValues) {
+        if (locatorType.startsWith("xpath=")) {
+            locatorType = String.format(locatorType, (Object[]) dynamicValues);
+        }
+        return locatorType;
+    }
+
+    public static class BenchmarkPage extends BasePage {
+        void click(WebDriver driver, String locatorType, String... dynamicValues) {
+            clickToElement(driver, locatorType, dynamicValues);
+        }
+
+        void click(WebDriver driver, String locatorType) {
+            clickToElement(driver, locatorType);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LocatorCacheBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,68 @@
+package benchmark;
+
+import factoryEnvironment.BrowserProfileTemplate;
+import factoryEnvironment.DriverBinaryResolver;
+import io.github.bonigarcia.wdm.config.DriverManagerType;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.io.File;
+
+/**
+ * Compare Firefox launch time with a per-session FirefoxProfile (zipped and base64-encoded by Selenium)
+ * against a clone of the cached profile template opened with -profile.
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmark.ProfileLaunchBenchmark -Diterations=5
+ */
+public class ProfileLaunchBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int iterations = Integer.getInteger("iterations", 5);
+        DriverBinaryResolver.setup(DriverManagerType.FIREFOX);
+
+        // Warm the template once so both variants are measured in their steady state
+        BrowserProfileTemplate.deleteClone(BrowserProfileTemplate.cloneFirefoxProfile());
+
+        long legacyPrepare = 0;
+        long templatePrepare = 0;
+        long legacyLaunch = 0;
+        long templateLaunch = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            FirefoxOptions legacy = new FirefoxOptions();
+            legacy.setProfile(BrowserProfileTemplate.newFirefoxProfile());
+            legacy.getProfile().toJson();
+            long prepared = System.nanoTime() - start;
+            legacyPrepare += prepared;
+            legacyLaunch += prepared + launch(legacy);
+
+            start = System.nanoTime();
+            File clone = BrowserProfileTemplate.cloneFirefoxProfile();
+            FirefoxOptions template = new FirefoxOptions();
+            template.addArguments("-profile", clone.getAbsolutePath());
+            prepared = System.nanoTime() - start;
+            templatePrepare += prepared;
+            templateLaunch += prepared + launch(template);
+            BrowserProfileTemplate.deleteClone(clone);
+        }
+
+        System.out.printf("Firefox profile, %d iterations (average ms)%n", iterations);
+        System.out.printf("  legacy   prepare=%d launch=%d%n", millis(legacyPrepare, iterations), millis(legacyLaunch, iterations));
+        System.out.printf("  template prepare=%d launch=%d%n", millis(templatePrepare, iterations), millis(templateLaunch, iterations));
+    }
+
+    private static long launch(FirefoxOptions options) {
+        long start = System.nanoTime();
+        WebDriver driver = new FirefoxDriver(options);
+        try {
+            driver.getTitle();
+            return System.nanoTime() - start;
+        } finally {
+            driver.quit();
+        }
+    }
+
+    private static long millis(long nanos, int iterations) {
+        return nanos / iterations / 1_000_000;
+    }
+}
@@ -16,33 +16,30 @@ import java.lang.reflect.Method;
 
 public class HomePage_1_UI extends BaseTest {
 
-    private Environment env;
-    private WebDriver driver;
-    HomePagePO homePage;
-    ShopPagePO shopPage;
-    ProductPagePO productPage;
-
     @Parameters({"browser", "evnName", "ipAddress", "portNumber", "osName", "osVersion"})
     @BeforeMethod
     public void beforeMethod(@Optional("firefox") String browserName, @Optional("local") String evnName, @Optional("Windows") String osName, @Optional("10") String osVersion, @Optional("localhost") String ipAddress, @Optional("4444") String portNumber) {
         String environmentName = System.getProperty("evn");
         ConfigFactory.setProperty("env", environmentName);
-        env = ConfigFactory.create(Environment.class);
+        Environment env = ConfigFactory.create(Environment.class);
 
-        driver = getBrowserDriver(browserName, env.automationTestingInUrl(), evnName, osName, osVersion, ipAddress, portNumber);
+        WebDriver driver = getBrowserDriver(browserName, env.automationTestingInUrl(), evnName, osName, osVersion, ipAddress, portNumber);
 
-        homePage = PageGenerateManager.getHomePage(driver);
+        HomePagePO homePage = PageGenerateManager.getHomePage(driver);
         String parentID = homePage.getParentId(driver);
         homePage.closeAllWindowWithoutParent(driver, parentID);
     }
 
     @Test
     public void HomePage1_01_Three_Sliders_Only(Method method) {
+        WebDriver driver = getDriverInstance();
+        HomePagePO homePage = PageGenerateManager.getHomePage(driver);
+
         ExtentTestManager.startTest(method.getName(), "Verify the homepage has three sliders only");
 
         ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 01: Click to 'Shop' link at header menu");
         homePage.clickOnHeaderLinkByText(driver, "Shop");
-        shopPage = PageGenerateManager.getShopPage(driver);
+        ShopPagePO shopPage = PageGenerateManager.getShopPage(driver);
 
         ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 02: Click to 'Home' link at breadcrumbs menu");
         shopPage.clickOnBreadCrumbsByText(driver, "Home");
@@ -54,11 +51,14 @@ public class HomePage_1_UI extends BaseTest {
 
     @Test
     public void HomePage1_02_Three_Arrivals_Only(Method method) {
+        WebDriver driver = getDriverInstance();
+        HomePagePO homePage = PageGenerateManager.getHomePage(driver);
+
         ExtentTestManager.startTest(method.getName(), "Verify the homepage has three arrivals only");
 
         ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 01: Click to 'Shop' link at header menu");
         homePage.clickOnHeaderLinkByText(driver, "Shop");
-        shopPage = PageGenerateManager.getShopPage(driver);
+        ShopPagePO shopPage = PageGenerateManager.getShopPage(driver);
 
         ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 02: Click to 'Home' link at breadcrumbs menu");
         shopPage.clickOnBreadCrumbsByText(driver, "Home");
@@ -74,11 +74,14 @@ public class HomePage_1_UI extends BaseTest {
 
     @Test
     public void HomePage1_03_Image_Clickable(Method method) {
+        WebDriver driver = getDriverInstance();
+        HomePagePO homePage = PageGenerateManager.getHomePage(driver);
+
         ExtentTestManager.startTest(method.getName(), "Verify image in arrival should negative");
 
         ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 01: Click to 'Shop' link at header menu");
         homePage.clickOnHeaderLinkByText(driver, "Shop");
-        shopPage = PageGenerateManager.getShopPage(driver);
+        ShopPagePO shopPage = PageGenerateManager.getShopPage(driver);
 
         ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 02: Click to 'Home' link at breadcrumbs menu");
         shopPage.clickOnBreadCrumbsByText(driver, "Home");
@@ -88,7 +91,7 @@ public class HomePage_1_UI extends BaseTest {
         verifyEquals(homePage.getArrivalSize(), 3);
 
         ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 04: Click on the image have title named 'Mastering Javascript'");
-        productPage = homePage.clickOnImageByTitle("Mastering JavaScript");
+        ProductPagePO productPage = homePage.clickOnImageByTitle("Mastering JavaScript");
 
         ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 05: Verify that the system navigate to product page and 'Add to basket' button is displayed");
         verifyTrue(productPage.isAddToBasketBtnDisplayed());
@@ -2,6 +2,7 @@ package com.homePage;
 
 import com.aventstack.extentreports.Status;
 import commons.BaseTest;
+import commons.BrowserCheckpoint;
 import org.aeonbits.owner.ConfigFactory;
 import org.openqa.selenium.WebDriver;
 import org.testng.annotations.*;
@@ -15,47 +16,29 @@ import ultilities.Environment;
 import java.lang.reflect.Method;
 
 public class HomePage_2_Arrivals extends BaseTest {
-
-    private Environment env;
-    private WebDriver driver;
-    HomePagePO homePage;
-    ShopPagePO shopPage;
-    ProductPagePO productPage;
+    private static final String PRODUCT_PAGE_CHECKPOINT = "Mastering JavaScript product page";
 
     @Parameters({"browser", "evnName", "ipAddress", "portNumber", "osName", "osVersion"})
     @BeforeMethod
     public void beforeMethod(@Optional("firefox") String browserName, @Optional("local") String evnName, @Optional("Windows") String osName, @Optional("10") String osVersion, @Optional("localhost") String ipAddress, @Optional("4444") String portNumber) {
         String environmentName = System.getProperty("evn");
         ConfigFactory.setProperty("env", environmentName);
-        env = ConfigFactory.create(Environment.class);
+        Environment env = ConfigFactory.create(Environment.class);
 
-        driver = getBrowserDriver(browserName, env.automationTestingInUrl(), evnName, osName, osVersion, ipAddress, portNumber);
+        WebDriver driver = getBrowserDriver(browserName, env.automationTestingInUrl(), evnName, osName, osVersion, ipAddress, portNumber);
 
-        homePage = PageGenerateManager.getHomePage(driver);
+        HomePagePO homePage = PageGenerateManager.getHomePage(driver);
         String parentID = homePage.getParentId(driver);
         homePage.closeAllWindowWithoutParent(driver, parentID);
     }
 
     @Test
     public void HomePage2_01_Arrival_Image_Description(Method method) {
-        ExtentTestManager.startTest(method.getName(), "There should be a description regarding that book the user clicked on");
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 01: Click to 'Shop' link at header menu");
-        homePage.clickOnHeaderLinkByText(driver, "Shop");
-        shopPage = PageGenerateManager.getShopPage(driver);
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 02: Click to 'Home' link at breadcrumbs menu");
-        shopPage.clickOnBreadCrumbsByText(driver, "Home");
-        homePage = PageGenerateManager.getHomePage(driver);
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 03: Verify that the homepage has three arrivals only");
-        verifyEquals(homePage.getArrivalSize(), 3);
+        WebDriver driver = getDriverInstance();
 
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 04: Click on the image have title named 'Mastering Javascript'");
-        productPage = homePage.clickOnImageByTitle("Mastering JavaScript");
+        ExtentTestManager.startTest(method.getName(), "There should be a description regarding that book the user clicked on");
 
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 05: Verify that the system navigate to product page and 'Add to basket' button is displayed");
-        verifyTrue(productPage.isAddToBasketBtnDisplayed());
+        ProductPagePO productPage = openMasteringJavaScriptProductPage(driver);
 
         ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 06: Click to the 'Description' tab");
         productPage.clickOnTheTabByClass("description_tab");
@@ -66,24 +49,11 @@ public class HomePage_2_Arrivals extends BaseTest {
 
     @Test
     public void HomePage2_02_Arrival_Image_Review(Method method) {
-        ExtentTestManager.startTest(method.getName(), "There should be a review regarding that book the user clicked on");
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 01: Click to 'Shop' link at header menu");
-        homePage.clickOnHeaderLinkByText(driver, "Shop");
-        shopPage = PageGenerateManager.getShopPage(driver);
+        WebDriver driver = getDriverInstance();
 
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 02: Click to 'Home' link at breadcrumbs menu");
-        shopPage.clickOnBreadCrumbsByText(driver, "Home");
-        homePage = PageGenerateManager.getHomePage(driver);
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 03: Verify that the homepage has three arrivals only");
-        verifyEquals(homePage.getArrivalSize(), 3);
+        ExtentTestManager.startTest(method.getName(), "There should be a review regarding that book the user clicked on");
 
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 04: Click on the image have title named 'Mastering Javascript'");
-        productPage = homePage.clickOnImageByTitle("Mastering JavaScript");
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 05: Verify that the system navigate to product page and 'Add to basket' button is displayed");
-        verifyTrue(productPage.isAddToBasketBtnDisplayed());
+        ProductPagePO productPage = openMasteringJavaScriptProductPage(driver);
 
         ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 06: Click to the 'Review' tab");
         productPage.clickOnTheTabByClass("reviews_tab");
@@ -94,24 +64,11 @@ public class HomePage_2_Arrivals extends BaseTest {
 
     @Test
     public void HomePage2_03_Arrival_Image_AddToBasket(Method method) {
-        ExtentTestManager.startTest(method.getName(), "User can add that book to his basket by clicking 'Add to basket' button");
+        WebDriver driver = getDriverInstance();
 
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 01: Click to 'Shop' link at header menu");
-        homePage.clickOnHeaderLinkByText(driver, "Shop");
-        shopPage = PageGenerateManager.getShopPage(driver);
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 02: Click to 'Home' link at breadcrumbs menu");
-        shopPage.clickOnBreadCrumbsByText(driver, "Home");
-        homePage = PageGenerateManager.getHomePage(driver);
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 03: Verify that the homepage has three arrivals only");
-        verifyEquals(homePage.getArrivalSize(), 3);
+        ExtentTestManager.startTest(method.getName(), "User can add that book to his basket by clicking 'Add to basket' button");
 
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 04: Click on the image have title named 'Mastering Javascript'");
-        productPage = homePage.clickOnImageByTitle("Mastering JavaScript");
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 05: Verify that the system navigate to product page and 'Add to basket' button is displayed");
-        verifyTrue(productPage.isAddToBasketBtnDisplayed());
+        ProductPagePO productPage = openMasteringJavaScriptProductPage(driver);
 
         ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 06: Click on the 'Add to basket' button");
         productPage.clickOnAddToBasketButton();
@@ -122,24 +79,11 @@ public class HomePage_2_Arrivals extends BaseTest {
 
     @Test
     public void HomePage2_04_Arrival_AddToBasket_More_Books(Method method) {
-        ExtentTestManager.startTest(method.getName(), "User try to add more books than the books in stock");
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 01: Click to 'Shop' link at header menu");
-        homePage.clickOnHeaderLinkByText(driver, "Shop");
-        shopPage = PageGenerateManager.getShopPage(driver);
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 02: Click to 'Home' link at breadcrumbs menu");
-        shopPage.clickOnBreadCrumbsByText(driver, "Home");
-        homePage = PageGenerateManager.getHomePage(driver);
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 03: Verify that the homepage has three arrivals only");
-        verifyEquals(homePage.getArrivalSize(), 3);
+        WebDriver driver = getDriverInstance();
 
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 04: Click on the image have title named 'Mastering Javascript'");
-        productPage = homePage.clickOnImageByTitle("Mastering JavaScript");
+        ExtentTestManager.startTest(method.getName(), "User try to add more books than the books in stock");
 
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 05: Verify that the system navigate to product page and 'Add to basket' button is displayed");
-        verifyTrue(productPage.isAddToBasketBtnDisplayed());
+        ProductPagePO productPage = openMasteringJavaScriptProductPage(driver);
 
         String productStock = productPage.getProductStock();
         String productQuantity = productStock + 1;
@@ -155,24 +99,11 @@ public class HomePage_2_Arrivals extends BaseTest {
 
     @Test
     public void HomePage2_05_Arrival_AddToBasket_Item(Method method) {
-        ExtentTestManager.startTest(method.getName(), "Verify the item should display in check out page after clicking 'Add to basket' button");
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 01: Click to 'Shop' link at header menu");
-        homePage.clickOnHeaderLinkByText(driver, "Shop");
-        shopPage = PageGenerateManager.getShopPage(driver);
+        WebDriver driver = getDriverInstance();
 
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 02: Click to 'Home' link at breadcrumbs menu");
-        shopPage.clickOnBreadCrumbsByText(driver, "Home");
-        homePage = PageGenerateManager.getHomePage(driver);
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 03: Verify that the homepage has three arrivals only");
-        verifyEquals(homePage.getArrivalSize(), 3);
-
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 04: Click on the image have title named 'Mastering Javascript'");
-        productPage = homePage.clickOnImageByTitle("Mastering JavaScript");
+        ExtentTestManager.startTest(method.getName(), "Verify the item should display in check out page after clicking 'Add to basket' button");
 
-        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 05: Verify that the system navigate to product page and 'Add to basket' button is displayed");
-        verifyTrue(productPage.isAddToBasketBtnDisplayed());
+        ProductPagePO productPage = openMasteringJavaScriptProductPage(driver);
 
         ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 05: Input 1 into quantity text box");
         productPage.inputToQuantityTextBox("1");
@@ -193,6 +124,39 @@ public class HomePage_2_Arrivals extends BaseTest {
         verifyTrue(productPage.isBasketTotalsTextDisplayed());
     }
 
+    /**
+     * Step 01-05 shared by every test: Shop -> Home breadcrumb -> arrivals -> 'Mastering JavaScript'.
+     * The first test walks through them and saves the product page, the next ones restore it directly
+     */
+    private ProductPagePO openMasteringJavaScriptProductPage(WebDriver driver) {
+        HomePagePO homePage = PageGenerateManager.getHomePage(driver);
+        ProductPagePO productPage;
+        if (homePage.openCheckpoint(driver, PRODUCT_PAGE_CHECKPOINT)) {
+            ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 01-04: Open the 'Mastering Javascript' product page from the saved checkpoint");
+            productPage = PageGenerateManager.getProductPage(driver);
+        } else {
+            ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 01: Click to 'Shop' link at header menu");
+            homePage.clickOnHeaderLinkByText(driver, "Shop");
+            ShopPagePO shopPage = PageGenerateManager.getShopPage(driver);
+
+            ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 02: Click to 'Home' link at breadcrumbs menu");
+            shopPage.clickOnBreadCrumbsByText(driver, "Home");
+            homePage = PageGenerateManager.getHomePage(driver);
+
+            ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 03: Verify that the homepage has three arrivals only");
+            verifyEquals(homePage.getArrivalSize(), 3);
+
+            ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 04: Click on the image have title named 'Mastering Javascript'");
+            productPage = homePage.clickOnImageByTitle("Mastering JavaScript");
+        }
+
+        ExtentTestManager.getTest().log(Status.INFO, "Home Page - Step 05: Verify that the system navigate to product page and 'Add to basket' button is displayed");
+        if (verifyTrue(productPage.isAddToBasketBtnDisplayed()) && BrowserCheckpoint.find(PRODUCT_PAGE_CHECKPOINT) == null) {
+            productPage.saveCheckpoint(driver, PRODUCT_PAGE_CHECKPOINT);
+        }
+        return productPage;
+    }
+
     @AfterMethod(alwaysRun = true)
     public void afterMethod() {
         closeBrowserAndDriver();
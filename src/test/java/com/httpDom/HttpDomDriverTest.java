@@ -0,0 +1,159 @@
+package com.httpDom;
+
+import com.sun.net.httpserver.HttpServer;
+import commons.BasePage;
+import commons.ElementCache;
+import factoryEnvironment.DriverSession;
+import factoryEnvironment.LocalFactory;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import pageObjects.HomePagePO;
+import pageObjects.PageGenerateManager;
+import pageUIs.BaseLocators;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+
+public class HttpDomDriverTest {
+    private HttpServer server;
+    private DriverSession session;
+    private WebDriver driver;
+    private String baseUrl;
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            try (InputStream page = getClass().getResourceAsStream("/httpDom" + path)) {
+                if (page == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                byte[] body = page.readAllBytes();
+                exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+                exchange.getResponseHeaders().add("Set-Cookie", "lastPage=" + path.substring(1) + "; Path=/");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        session = DriverSession.open(new LocalFactory("http"));
+        driver = session.getDriver();
+        driver.get(baseUrl + "/home.html");
+    }
+
+    @Test
+    public void HttpDom_01_Page_Object_Counts() {
+        HomePagePO homePage = PageGenerateManager.getHomePage(driver);
+
+        Assert.assertEquals(homePage.getSliderSize(), 3);
+        Assert.assertEquals(homePage.getArrivalSize(), 3);
+    }
+
+    @Test
+    public void HttpDom_02_Text_Attributes_And_State() {
+        Assert.assertEquals(driver.getTitle(), "Automation Practice Site");
+        Assert.assertEquals(driver.findElement(By.xpath("//span[@class='cartcontents']")).getText(), "0 items");
+        Assert.assertEquals(driver.findElement(By.xpath("//img[@title='Thinking in HTML']")).getAttribute("src"), baseUrl + "/images/html.jpg");
+        Assert.assertEquals(driver.findElement(By.cssSelector("#main-nav")).findElements(By.tagName("a")).size(), 3);
+        Assert.assertEquals(driver.findElement(By.linkText("Shop")).getAttribute("href"), baseUrl + "/shop.html");
+
+        Assert.assertFalse(driver.findElement(By.className("promo")).isDisplayed());
+        Assert.assertEquals(driver.findElement(By.className("promo")).getText(), "");
+        Assert.assertFalse(driver.findElement(By.name("post_type")).isDisplayed());
+        Assert.assertFalse(driver.findElement(By.name("s")).isEnabled());
+        Assert.assertEquals(driver.findElement(By.name("s")).getAttribute("disabled"), "true");
+        Assert.assertNull(driver.findElement(By.name("s")).getAttribute("placeholder"));
+
+        Assert.assertThrows(NoSuchElementException.class, () -> driver.findElement(By.id("missing")));
+    }
+
+    @Test
+    public void HttpDom_03_Navigation_And_Cookies() {
+        WebElement homeNav = driver.findElement(By.id("main-nav"));
+
+        driver.navigate().to(baseUrl + "/shop.html");
+        Assert.assertEquals(driver.getCurrentUrl(), baseUrl + "/shop.html");
+        Assert.assertEquals(driver.manage().getCookieNamed("lastPage").getValue(), "shop.html");
+        Assert.assertThrows(StaleElementReferenceException.class, homeNav::getText);
+
+        driver.navigate().back();
+        Assert.assertEquals(driver.getCurrentUrl(), baseUrl + "/home.html");
+        Assert.assertEquals(driver.manage().getCookieNamed("lastPage").getValue(), "home.html");
+
+        driver.manage().deleteAllCookies();
+        Assert.assertTrue(driver.manage().getCookies().isEmpty());
+    }
+
+    @Test
+    public void HttpDom_04_Interaction_Fails_Clearly() {
+        WebElement link = driver.findElement(By.linkText("Shop"));
+
+        Assert.assertThrows(UnsupportedCommandException.class, link::click);
+        Assert.assertThrows(UnsupportedCommandException.class, () -> driver.findElement(By.name("s")).sendKeys("ruby"));
+        Assert.assertThrows(UnsupportedCommandException.class, () -> ((JavascriptExecutor) driver).executeScript("return 1;"));
+        Assert.assertThrows(UnsupportedCommandException.class, () -> driver.switchTo().alert());
+    }
+
+    @Test
+    public void HttpDom_05_Element_Cache_Drops_Stale_Handles() {
+        CartTextPage page = new CartTextPage();
+        long misses = ElementCache.getMisses();
+        long staleRefinds = ElementCache.getStaleRefinds();
+
+        Assert.assertEquals(page.getCartText(driver), "0 items");
+        Assert.assertEquals(page.getCartText(driver), "0 items");
+        Assert.assertEquals(ElementCache.getMisses(), misses + 1);
+
+        // The stale handle is dropped and the read retried once on a fresh lookup; the raw handle stays stale
+        ElementCache cache = new ElementCache();
+        By cart = By.xpath("//span[@class='cartcontents']");
+        WebElement handle = ((WrapsElement) cache.find(driver, cart)).getWrappedElement();
+        driver.navigate().refresh();
+        Assert.assertEquals(page.getCartText(driver), "0 items");
+        Assert.assertEquals(ElementCache.getStaleRefinds(), staleRefinds + 1);
+        Assert.assertEquals(ElementCache.getMisses(), misses + 3);
+        Assert.assertTrue(ExpectedConditions.stalenessOf(handle).apply(driver));
+
+        Assert.assertEquals(cache.find(driver, cart), cache.find(driver, cart));
+        Assert.assertEquals(cache.find(driver, cart).hashCode(), cache.find(driver, cart).hashCode());
+        Assert.assertNotEquals(cache.find(driver, cart), new ElementCache().find(driver, cart));
+        Assert.assertEquals(ElementCache.getMisses(), misses + 3);
+    }
+
+    public static class CartTextPage extends BasePage {
+        String getCartText(WebDriver driver) {
+            return getElementText(driver, BaseLocators.MINI_CART);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() {
+        if (session != null) {
+            session.close();
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+}